@@ -0,0 +1,79 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.dataset.DatasetGenerator;
+import ru.practicum.shareit.dataset.DatasetSpec;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сервер без веб-слоя на H2 в памяти. БД заполняется {@link DatasetGenerator} до старта контекста,
+ * чтобы индексы в памяти строились уже по заполненным таблицам.
+ * Фоновые задачи выключены.
+ */
+public final class BenchmarkServer implements AutoCloseable {
+    // Первый «крупный владелец» набора: у него powerOwnerItems вещей
+    public static final long OWNER_ID = 1;
+
+    /**
+     * 5 000 пользователей, 50 000 вещей (200 у {@link #OWNER_ID}), 500 000 бронирований, 50 000 комментариев.
+     */
+    public static final DatasetSpec DATASET = DatasetSpec.scaled(0.05).toBuilder()
+            .powerOwnerItems(200)
+            .build();
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkServer(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static BenchmarkServer start(DatasetSpec dataset, String... properties) {
+        String url = "jdbc:h2:mem:shareit-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE ALIAS word_similarity FOR '" + H2Functions.class.getName() + ".wordSimilarity'");
+            }
+            new DatasetGenerator(dataset.toBuilder().now(LocalDateTime.now()).build()).load(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось заполнить БД для замеров", e);
+        }
+
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.sql.init.mode=never",
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--shareit.scheduling.enabled=false",
+                "--shareit.requests.matching.enabled=false"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return new BenchmarkServer(new SpringApplicationBuilder(ShareItApp.class)
+                .run(args.toArray(String[]::new)));
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.benchmark;
+
+import java.util.Locale;
+
+/**
+ * Замены функций PostgreSQL для нативных запросов сервера на H2, регистрируются в {@link BenchmarkServer}.
+ */
+public final class H2Functions {
+
+    private H2Functions() {
+    }
+
+    /**
+     * Грубая замена word_similarity из pg_trgm: 1 — text с начала слова, 0.5 — внутри слова, 0 — нет вхождения.
+     * Нужна, чтобы запрос вообще выполнялся на H2; порядок выдачи близок к PostgreSQL, но не совпадает.
+     */
+    public static double wordSimilarity(String text, String value) {
+        String needle = text.toLowerCase(Locale.ROOT);
+        String haystack = value.toLowerCase(Locale.ROOT);
+        int at = haystack.indexOf(needle);
+        if (at < 0) {
+            return 0;
+        }
+        return at == 0 || !Character.isLetterOrDigit(haystack.charAt(at - 1)) ? 1 : 0.5;
+    }
+}
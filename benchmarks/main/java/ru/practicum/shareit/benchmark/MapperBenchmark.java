@@ -0,0 +1,98 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.item.comments.Comment;
+import ru.practicum.shareit.item.comments.CommentDto;
+import ru.practicum.shareit.item.comments.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг сущностей в DTO для страницы из size записей, как в ответах списков.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"20", "1000"})
+    private int size;
+
+    private List<User> users;
+    private List<Item> items;
+    private List<Booking> bookings;
+    private List<Comment> comments;
+    private List<List<CommentDto>> itemComments;
+
+    @Setup
+    public void setUp() {
+        SampleData data = new SampleData(LocalDateTime.now());
+        users = data.users(size);
+        items = new ArrayList<>(size);
+        bookings = new ArrayList<>(size * 2);
+        comments = new ArrayList<>(size * 3);
+        itemComments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Item item = data.item(i + 1, users.get(i));
+            items.add(item);
+            bookings.addAll(data.bookings(item, users, bookings.size() + 1, 2));
+            List<CommentDto> dtos = new ArrayList<>(3);
+            for (int c = 0; c < 3; c++) {
+                Comment comment = data.comment(comments.size() + 1, item, users.get((i + c + 1) % size));
+                comments.add(comment);
+                dtos.add(CommentMapper.toCommentDto(comment));
+            }
+            itemComments.add(dtos);
+        }
+    }
+
+    @Benchmark
+    public List<ItemDto> items() {
+        List<ItemDto> result = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            result.add(ItemMapper.toItemDto(items.get(i), bookings.get(2 * i), bookings.get(2 * i + 1),
+                    itemComments.get(i)));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<BookingDto> bookings() {
+        return bookings.stream().map(BookingMapper::toBookingDto).toList();
+    }
+
+    @Benchmark
+    public List<CommentDto> comments() {
+        return comments.stream().map(CommentMapper::toCommentDto).toList();
+    }
+
+    @Benchmark
+    public List<UserDto> users() {
+        return users.stream().map(UserMapper::toUserDto).toList();
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.dataset.Vocabulary;
+import ru.practicum.shareit.item.comments.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Синтетические пользователи, вещи, бронирования и комментарии. Генератор с фиксированным seed,
+ * поэтому данные одинаковы от запуска к запуску и результаты разных сборок сравнимы.
+ */
+public final class SampleData {
+    private final Random random = new Random(42);
+    private final LocalDateTime now;
+
+    public SampleData(LocalDateTime now) {
+        this.now = now;
+    }
+
+    public List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            users.add(User.builder().id(id).name("Пользователь " + id).email("user" + id + "@shareit.ru").build());
+        }
+        return users;
+    }
+
+    public Item item(long id, User owner) {
+        return Item.builder()
+                .id(id)
+                .name(Vocabulary.name(random))
+                .description(Vocabulary.words(random, 8 + random.nextInt(8)))
+                .available(random.nextInt(10) != 0)
+                .owner(owner)
+                .build();
+    }
+
+    /**
+     * Бронирования вещи раз в две недели начиная с месяца назад: часть в прошлом, часть в будущем.
+     */
+    public List<Booking> bookings(Item item, List<User> users, long firstId, int count) {
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = now.minusDays(30).plusDays(14L * i).plusHours(random.nextInt(48));
+            bookings.add(Booking.builder()
+                    .id(firstId + i)
+                    .start(start)
+                    .end(start.plusDays(1 + random.nextInt(5)))
+                    .item(item)
+                    .booker(users.get(random.nextInt(users.size())))
+                    .status(status())
+                    .build());
+        }
+        return bookings;
+    }
+
+    public Comment comment(long id, Item item, User author) {
+        return Comment.builder()
+                .id(id)
+                .text(Vocabulary.words(random, 5 + random.nextInt(10)))
+                .item(item)
+                .author(author)
+                .created(now.minusDays(random.nextInt(365)))
+                .build();
+    }
+
+    private BookingStatus status() {
+        int roll = random.nextInt(10);
+        if (roll < 8) {
+            return BookingStatus.APPROVED;
+        }
+        return roll == 8 ? BookingStatus.WAITING : BookingStatus.REJECTED;
+    }
+}
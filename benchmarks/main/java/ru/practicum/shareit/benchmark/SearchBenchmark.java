@@ -0,0 +1,76 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItemService.searchItems по индексу в памяти (memory) и запросом в БД (database).
+ * В database ILIKE без trigram-индексов и word_similarity из {@link H2Functions}: это накладные расходы
+ * пути через JPA на полном просмотре H2, а не оценка поиска в PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SearchBenchmark {
+    private static final Duration INDEX_TIMEOUT = Duration.ofMinutes(2);
+
+    @Param({"memory", "database"})
+    private String source;
+
+    @Param({"дрель", "с насадками"})
+    private String text;
+
+    private BenchmarkServer server;
+    private ItemService itemService;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        boolean memory = "memory".equals(source);
+        server = BenchmarkServer.start(BenchmarkServer.DATASET, "shareit.search.index.enabled=" + memory);
+        itemService = server.bean(ItemService.class);
+        if (memory) {
+            awaitIndex(server.bean(ItemSearchIndex.class));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<Item> firstPage() {
+        return itemService.searchItems(text, 0, 20);
+    }
+
+    // Индекс строится в фоне после старта, до готовности поиск идёт в БД
+    private static void awaitIndex(ItemSearchIndex index) throws InterruptedException {
+        long deadline = System.nanoTime() + INDEX_TIMEOUT.toNanos();
+        while (!index.isReady()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Индекс поиска не построен за " + INDEX_TIMEOUT);
+            }
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.KeysetPage;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.benchmark.BenchmarkServer.OWNER_ID;
+
+/**
+ * Сервисы владельца вещей целиком, с транзакциями и запросами к БД: владелец с powerOwnerItems вещами
+ * среди {@link BenchmarkServer#DATASET}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    private BenchmarkServer server;
+    private ItemService itemService;
+    private BookingService bookingService;
+
+    @Setup
+    public void setUp() {
+        server = BenchmarkServer.start(BenchmarkServer.DATASET);
+        itemService = server.bean(ItemService.class);
+        bookingService = server.bean(BookingService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> itemsByOwner() {
+        return itemService.getItemsByOwnerId(OWNER_ID);
+    }
+
+    @Benchmark
+    public KeysetPage<BookingDto> ownerBookingsAll() {
+        return bookingService.getOwnerBookings(OWNER_ID, BookingState.ALL, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public KeysetPage<BookingDto> ownerBookingsFuture() {
+        return bookingService.getOwnerBookings(OWNER_ID, BookingState.FUTURE, null, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.dataset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.StringJoiner;
+
+/**
+ * INSERT ... VALUES (...), (...) по ROWS_PER_STATEMENT строк, статементы отправляются пачками JDBC.
+ */
+class BatchTableWriter implements TableWriter {
+    private static final int ROWS_PER_STATEMENT = 100;
+    private static final int STATEMENTS_PER_BATCH = 50;
+
+    private final Connection connection;
+    private final String table;
+    private final String[] columns;
+    private final PreparedStatement insert;
+    private final Object[][] pending = new Object[ROWS_PER_STATEMENT][];
+    private int pendingRows;
+    private int batchedStatements;
+    private long rows;
+
+    BatchTableWriter(Connection connection, String table, String... columns) throws SQLException {
+        this.connection = connection;
+        this.table = table;
+        this.columns = columns;
+        this.insert = connection.prepareStatement(insertSql(ROWS_PER_STATEMENT));
+    }
+
+    @Override
+    public void row(Object... values) throws SQLException {
+        pending[pendingRows++] = values;
+        rows++;
+        if (pendingRows < ROWS_PER_STATEMENT) {
+            return;
+        }
+        bind(insert, ROWS_PER_STATEMENT);
+        insert.addBatch();
+        pendingRows = 0;
+        if (++batchedStatements == STATEMENTS_PER_BATCH) {
+            insert.executeBatch();
+            batchedStatements = 0;
+        }
+    }
+
+    @Override
+    public long rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (insert) {
+            if (batchedStatements > 0) {
+                insert.executeBatch();
+            }
+            if (pendingRows > 0) {
+                try (PreparedStatement tail = connection.prepareStatement(insertSql(pendingRows))) {
+                    bind(tail, pendingRows);
+                    tail.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private void bind(PreparedStatement statement, int count) throws SQLException {
+        int index = 1;
+        for (int row = 0; row < count; row++) {
+            for (Object value : pending[row]) {
+                statement.setObject(index++, value);
+            }
+        }
+    }
+
+    private String insertSql(int rowCount) {
+        StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+        for (int i = 0; i < columns.length; i++) {
+            placeholders.add("?");
+        }
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < rowCount; i++) {
+            values.add(placeholders.toString());
+        }
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES " + values;
+    }
+}
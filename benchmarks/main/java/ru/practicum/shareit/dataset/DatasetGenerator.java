@@ -0,0 +1,268 @@
+package ru.practicum.shareit.dataset;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * Заполняет users, requests, items, bookings, comments и item_timelines по {@link DatasetSpec}.
+ * <p>
+ * Строки генерируются и пишутся потоком, в памяти держатся только владельцы и счётчики по вещам.
+ * Бронирования вещи генерируются собственным генератором от seed и id вещи, поэтому item_timelines
+ * считается повторным проходом по тем же бронированиям без их хранения.
+ * Бронирования одной вещи не пересекаются: окно [now − 2 года, now + полгода) делится на равные слоты.
+ * На PostgreSQL вторичные индексы на время загрузки снимаются, см. {@link IndexSuspension}.
+ */
+@Slf4j
+public class DatasetGenerator {
+    private static final long WINDOW_BEFORE_MINUTES = 730L * 24 * 60;
+    private static final long WINDOW_MINUTES = WINDOW_BEFORE_MINUTES + 183L * 24 * 60;
+    private static final long MAX_BOOKING_MINUTES = 7L * 24 * 60;
+    private static final long BOOKINGS_STREAM = 1;
+    private static final long COMMENTS_STREAM = 2;
+    // INCREMENT BY последовательностей id в schema.sql
+    private static final long ID_ALLOCATION_SIZE = 50;
+
+    private final DatasetSpec spec;
+
+    public DatasetGenerator(DatasetSpec spec) {
+        this.spec = spec;
+    }
+
+    /**
+     * Пишет набор в пустые таблицы одной транзакцией и сдвигает последовательности id за последние id.
+     */
+    public void load(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            IndexSuspension indexes = IndexSuspension.suspend(connection,
+                    "users", "requests", "items", "bookings", "comments", "item_timelines");
+            SplittableRandom random = new SplittableRandom(spec.seed());
+            timed("users", () -> writeUsers(connection));
+            timed("requests", () -> writeRequests(connection, random));
+            int[] owners = new int[spec.items() + 1];
+            timed("items", () -> writeItems(connection, random, owners));
+            int[] bookingCounts = distribute(random, spec.bookings(), spec.hotItems(),
+                    spec.hotItemBookingsMin(), spec.hotItemBookingsMax());
+            timed("bookings", () -> writeBookings(connection, owners, bookingCounts));
+            timed("item_timelines", () -> writeTimelines(connection, owners, bookingCounts));
+            int[] commentCounts = distribute(random, spec.comments(), spec.longThreads(),
+                    spec.longThreadCommentsMin(), spec.longThreadCommentsMax());
+            timed("comments", () -> writeComments(connection, owners, commentCounts));
+            indexes.restore(connection);
+            restartSequences(connection, bookingCounts, commentCounts);
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private long writeUsers(Connection connection) throws SQLException {
+        try (TableWriter users = TableWriter.open(connection, "users", "id", "name", "email")) {
+            for (long id = 1; id <= spec.users(); id++) {
+                users.row(id, "Пользователь " + id, "user" + id + "@shareit.ru");
+            }
+            return users.rows();
+        }
+    }
+
+    // Запросы создаются равномерно за последний год; большая часть — от небольшой доли пользователей
+    private long writeRequests(Connection connection, SplittableRandom random) throws SQLException {
+        LocalDateTime from = spec.now().minusYears(1);
+        long step = Math.max(1, 365L * 24 * 60 * 60 / Math.max(1, spec.requests()));
+        try (TableWriter requests = TableWriter.open(connection, "requests",
+                "id", "description", "requester_id", "created")) {
+            for (long id = 1; id <= spec.requests(); id++) {
+                long requester = 1 + (long) (spec.users() * Math.pow(random.nextDouble(), 3));
+                requests.row(id, Vocabulary.request(random), requester,
+                        from.plusSeconds((id - 1) * step + random.nextLong(step)));
+            }
+            return requests.rows();
+        }
+    }
+
+    private long writeItems(Connection connection, SplittableRandom random, int[] owners) throws SQLException {
+        int powerItems = spec.powerOwners() * spec.powerOwnerItems();
+        int otherUsers = spec.users() - spec.powerOwners();
+        try (TableWriter items = TableWriter.open(connection, "items",
+                "id", "name", "description", "is_available", "owner_id", "request_id")) {
+            for (int id = 1; id <= spec.items(); id++) {
+                owners[id] = id <= powerItems
+                        ? (id - 1) / spec.powerOwnerItems() + 1
+                        : spec.powerOwners() + 1 + random.nextInt(otherUsers);
+                Long requestId = spec.requests() > 0 && random.nextDouble() < spec.answeredShare()
+                        ? 1L + random.nextInt(spec.requests())
+                        : null;
+                items.row((long) id, Vocabulary.name(random), Vocabulary.words(random, 8 + random.nextInt(8)),
+                        random.nextDouble() < spec.availableShare(), (long) owners[id], requestId);
+            }
+            return items.rows();
+        }
+    }
+
+    private long writeBookings(Connection connection, int[] owners, int[] counts) throws SQLException {
+        try (TableWriter bookings = TableWriter.open(connection, "bookings",
+                "id", "start_date", "end_date", "item_id", "booker_id", "status")) {
+            long nextId = 1;
+            for (int itemId = 1; itemId <= spec.items(); itemId++) {
+                BookingRow[] rows = itemBookings(itemId, owners[itemId], nextId, counts[itemId]);
+                for (BookingRow row : rows) {
+                    bookings.row(row.id(), row.start(), row.end(), (long) itemId, (long) row.bookerId(),
+                            row.status().name());
+                }
+                nextId += counts[itemId];
+            }
+            return bookings.rows();
+        }
+    }
+
+    // Последнее и ближайшее подтверждённые бронирования относительно now, как считает ItemTimelineService
+    private long writeTimelines(Connection connection, int[] owners, int[] counts) throws SQLException {
+        try (TableWriter timelines = TableWriter.open(connection, "item_timelines",
+                "item_id", "last_booking_id", "last_booker_id", "last_start", "last_end",
+                "next_booking_id", "next_booker_id", "next_start", "next_end")) {
+            long nextId = 1;
+            for (int itemId = 1; itemId <= spec.items(); itemId++) {
+                BookingRow last = null;
+                BookingRow next = null;
+                for (BookingRow row : itemBookings(itemId, owners[itemId], nextId, counts[itemId])) {
+                    if (row.status() != BookingStatus.APPROVED) {
+                        continue;
+                    }
+                    if (row.start().isBefore(spec.now())) {
+                        last = row;
+                    } else if (next == null && row.start().isAfter(spec.now())) {
+                        next = row;
+                    }
+                }
+                nextId += counts[itemId];
+                timelines.row((long) itemId,
+                        last != null ? last.id() : null, last != null ? (long) last.bookerId() : null,
+                        last != null ? last.start() : null, last != null ? last.end() : null,
+                        next != null ? next.id() : null, next != null ? (long) next.bookerId() : null,
+                        next != null ? next.start() : null, next != null ? next.end() : null);
+            }
+            return timelines.rows();
+        }
+    }
+
+    private long writeComments(Connection connection, int[] owners, int[] counts) throws SQLException {
+        try (TableWriter comments = TableWriter.open(connection, "comments",
+                "id", "text", "item_id", "author_id", "created")) {
+            long nextId = 1;
+            for (int itemId = 1; itemId <= spec.items(); itemId++) {
+                SplittableRandom random = itemRandom(COMMENTS_STREAM, itemId);
+                for (int i = 0; i < counts[itemId]; i++) {
+                    comments.row(nextId++, Vocabulary.words(random, 3 + random.nextInt(12)), (long) itemId,
+                            (long) otherUser(random, owners[itemId]),
+                            spec.now().minusMinutes(random.nextLong(365L * 24 * 60)));
+                }
+            }
+            return comments.rows();
+        }
+    }
+
+    /**
+     * Бронирования вещи по порядку дат: каждое в своём слоте окна, длительностью до недели.
+     * В прошлом в основном подтверждённые, в будущем заметная доля ждёт решения владельца.
+     */
+    private BookingRow[] itemBookings(int itemId, int ownerId, long firstId, int count) {
+        SplittableRandom random = itemRandom(BOOKINGS_STREAM, itemId);
+        BookingRow[] rows = new BookingRow[count];
+        LocalDateTime from = spec.now().minusMinutes(WINDOW_BEFORE_MINUTES);
+        long slot = WINDOW_MINUTES / Math.max(1, count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = from.plusMinutes(i * slot + random.nextLong(slot / 4 + 1));
+            long duration = Math.min(MAX_BOOKING_MINUTES, Math.max(1, slot / 4 + random.nextLong(slot / 2 + 1)));
+            rows[i] = new BookingRow(firstId + i, start, start.plusMinutes(duration),
+                    otherUser(random, ownerId), status(random, start.isBefore(spec.now())));
+        }
+        return rows;
+    }
+
+    private static BookingStatus status(SplittableRandom random, boolean past) {
+        int roll = random.nextInt(100);
+        if (past) {
+            return roll < 90 ? BookingStatus.APPROVED : roll < 96 ? BookingStatus.REJECTED : BookingStatus.CANCELED;
+        }
+        return roll < 60 ? BookingStatus.APPROVED : roll < 95 ? BookingStatus.WAITING : BookingStatus.REJECTED;
+    }
+
+    /**
+     * Счётчики по id вещи: hotCount случайных вещей получают от hotMin до hotMax, остаток total
+     * распределяется по всем вещам равномерно.
+     */
+    private int[] distribute(SplittableRandom random, long total, int hotCount, int hotMin, int hotMax) {
+        int[] counts = new int[spec.items() + 1];
+        long remaining = total;
+        for (int i = 0; i < hotCount; i++) {
+            int itemId;
+            do {
+                itemId = 1 + random.nextInt(spec.items());
+            } while (counts[itemId] > 0);
+            counts[itemId] = hotMin + random.nextInt(hotMax - hotMin + 1);
+            remaining -= counts[itemId];
+        }
+        for (long i = 0; i < remaining; i++) {
+            counts[1 + random.nextInt(spec.items())]++;
+        }
+        return counts;
+    }
+
+    private void restartSequences(Connection connection, int[] bookingCounts, int[] commentCounts)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            restart(statement, "users", spec.users());
+            restart(statement, "requests", spec.requests());
+            restart(statement, "items", spec.items());
+            restart(statement, "bookings", sum(bookingCounts));
+            restart(statement, "comments", sum(commentCounts));
+        }
+    }
+
+    // Hibernate считает значение последовательности верхней границей блока из ID_ALLOCATION_SIZE id,
+    // так что первый блок после загрузки начнётся с lastId + 1
+    private static void restart(Statement statement, String table, long lastId) throws SQLException {
+        statement.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH " + (lastId + ID_ALLOCATION_SIZE));
+    }
+
+    private static long sum(int[] counts) {
+        long sum = 0;
+        for (int count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    private int otherUser(SplittableRandom random, int excluded) {
+        int user = 1 + random.nextInt(spec.users() - 1);
+        return user >= excluded ? user + 1 : user;
+    }
+
+    private SplittableRandom itemRandom(long stream, int itemId) {
+        return new SplittableRandom(spec.seed() * 31 + stream * 0x9E3779B97F4A7C15L + itemId);
+    }
+
+    private void timed(String table, TableLoad load) throws SQLException {
+        long started = System.nanoTime();
+        long rows = load.run();
+        log.info("{}: {} строк за {} мс", table, rows, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @FunctionalInterface
+    private interface TableLoad {
+        long run() throws SQLException;
+    }
+
+    private record BookingRow(long id, LocalDateTime start, LocalDateTime end, int bookerId, BookingStatus status) {
+    }
+}
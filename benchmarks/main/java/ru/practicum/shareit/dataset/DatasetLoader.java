@@ -0,0 +1,91 @@
+package ru.practicum.shareit.dataset;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Загрузка синтетического набора в существующую схему (schema.sql сервера).
+ * <p>
+ * Аргументы: --url (обязателен), --user, --password, --scale (1 = 10 млн бронирований), --seed,
+ * --now (опорная дата, по умолчанию текущая) и --truncate, чтобы очистить непустые таблицы.
+ */
+@Slf4j
+public class DatasetLoader {
+    private static final String[] TABLES = {
+        "request_matches", "item_timelines", "comments", "bookings", "items", "requests", "users"
+    };
+
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> options = parse(args);
+        String url = options.get("url");
+        if (url == null) {
+            throw new IllegalArgumentException("Не задан --url, например --url=jdbc:postgresql://localhost:6541/shareit");
+        }
+        DatasetSpec.DatasetSpecBuilder spec = DatasetSpec.scaled(Double.parseDouble(options.getOrDefault("scale", "1")))
+                .toBuilder();
+        if (options.containsKey("seed")) {
+            spec.seed(Long.parseLong(options.get("seed")));
+        }
+        if (options.containsKey("now")) {
+            spec.now(LocalDateTime.parse(options.get("now")));
+        }
+
+        try (Connection connection = DriverManager.getConnection(url,
+                options.getOrDefault("user", "shareit"), options.getOrDefault("password", "shareit"))) {
+            prepare(connection, options.containsKey("truncate"));
+            long started = System.nanoTime();
+            DatasetSpec dataset = spec.build();
+            log.info("Загрузка {}", dataset);
+            new DatasetGenerator(dataset).load(connection);
+            log.info("Набор загружен за {} с", (System.nanoTime() - started) / 1_000_000_000);
+        }
+    }
+
+    private static void prepare(Connection connection, boolean truncate) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (truncate) {
+                // Порядок TABLES — от зависимых к основным, чтобы DELETE не упирался во внешние ключи
+                if ("PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                    statement.execute("TRUNCATE TABLE " + String.join(", ", TABLES));
+                } else {
+                    for (String table : TABLES) {
+                        statement.execute("DELETE FROM " + table);
+                    }
+                }
+                return;
+            }
+            for (String table : TABLES) {
+                try (ResultSet rows = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM " + table + ")")) {
+                    rows.next();
+                    if (rows.getBoolean(1)) {
+                        throw new IllegalStateException("Таблица " + table + " не пуста, запустите с --truncate");
+                    }
+                }
+            }
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Неизвестный аргумент: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
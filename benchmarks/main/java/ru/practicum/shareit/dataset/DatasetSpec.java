@@ -0,0 +1,101 @@
+package ru.practicum.shareit.dataset;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Объём и перекосы синтетического набора данных.
+ * <p>
+ * Пользователи 1..powerOwners — «крупные владельцы» с powerOwnerItems вещами каждый, остальные вещи
+ * распределены по прочим пользователям равномерно. У hotItems вещей — от hotItemBookingsMin до
+ * hotItemBookingsMax бронирований, у longThreads вещей — длинные ветки комментариев; остаток бронирований
+ * и комментариев распределён по всем вещам равномерно. Даты отсчитываются от now, так что при тех же
+ * seed и now набор воспроизводится полностью.
+ */
+@Builder(toBuilder = true)
+public record DatasetSpec(long seed,
+                          LocalDateTime now,
+                          int users,
+                          int items,
+                          long bookings,
+                          long comments,
+                          int requests,
+                          int powerOwners,
+                          int powerOwnerItems,
+                          int hotItems,
+                          int hotItemBookingsMin,
+                          int hotItemBookingsMax,
+                          int longThreads,
+                          int longThreadCommentsMin,
+                          int longThreadCommentsMax,
+                          double answeredShare,
+                          double availableShare) {
+
+    public DatasetSpec {
+        if (users < 2 || items < 1) {
+            throw new IllegalArgumentException("Нужно хотя бы 2 пользователя и 1 вещь");
+        }
+        if (powerOwners >= users || (long) powerOwners * powerOwnerItems > items) {
+            throw new IllegalArgumentException("Вещи крупных владельцев не помещаются в " + items + " вещей");
+        }
+        if (hotItems > items || (long) hotItems * hotItemBookingsMax > bookings) {
+            throw new IllegalArgumentException("Бронирования популярных вещей не помещаются в " + bookings);
+        }
+        if (longThreads > items || (long) longThreads * longThreadCommentsMax > comments) {
+            throw new IllegalArgumentException("Длинные ветки не помещаются в " + comments + " комментариев");
+        }
+        // Иначе слоты бронирований одной вещи короче 10 минут
+        if (hotItemBookingsMax > 100_000) {
+            throw new IllegalArgumentException("Не больше 100 000 бронирований на вещь");
+        }
+        if (hotItemBookingsMin > hotItemBookingsMax || longThreadCommentsMin > longThreadCommentsMax) {
+            throw new IllegalArgumentException("Нижняя граница больше верхней");
+        }
+    }
+
+    /**
+     * Масштаб 1 — 100 тыс. пользователей, 1 млн вещей, 10 млн бронирований, 1 млн комментариев
+     * и 200 тыс. запросов; 10 владельцев по 10 тыс. вещей, 100 вещей с 2–5 тыс. бронирований
+     * и 50 веток по 500–2000 комментариев. Число «горячих» объектов растёт с масштабом, их размер — нет,
+     * пока они занимают не больше половины таблицы.
+     */
+    public static DatasetSpec scaled(double scale) {
+        if (!(scale > 0)) {
+            throw new IllegalArgumentException("Масштаб должен быть больше нуля: " + scale);
+        }
+        int users = atLeast(2, 100_000 * scale);
+        int items = atLeast(1, 1_000_000 * scale);
+        long bookings = Math.round(10_000_000 * scale);
+        long comments = Math.round(1_000_000 * scale);
+        int powerOwners = Math.min(users - 1, atLeast(1, 10 * scale));
+        int hotItems = Math.min(items, atLeast(1, 100 * scale));
+        int longThreads = Math.min(items, atLeast(1, 50 * scale));
+        int hotItemBookingsMax = (int) Math.min(5_000, bookings / 2 / hotItems);
+        int longThreadCommentsMax = (int) Math.min(2_000, comments / 2 / longThreads);
+        return DatasetSpec.builder()
+                .seed(42)
+                .now(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS))
+                .users(users)
+                .items(items)
+                .bookings(bookings)
+                .comments(comments)
+                .requests(atLeast(0, 200_000 * scale))
+                .powerOwners(powerOwners)
+                .powerOwnerItems(Math.min(10_000, items / 2 / powerOwners))
+                .hotItems(hotItems)
+                .hotItemBookingsMin(Math.min(2_000, hotItemBookingsMax))
+                .hotItemBookingsMax(hotItemBookingsMax)
+                .longThreads(longThreads)
+                .longThreadCommentsMin(Math.min(500, longThreadCommentsMax))
+                .longThreadCommentsMax(longThreadCommentsMax)
+                .answeredShare(0.05)
+                .availableShare(0.9)
+                .build();
+    }
+
+    private static int atLeast(int min, double value) {
+        return (int) Math.max(min, Math.round(value));
+    }
+}
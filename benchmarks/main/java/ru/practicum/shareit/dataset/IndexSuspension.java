@@ -0,0 +1,81 @@
+package ru.practicum.shareit.dataset;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Вторичные индексы, внешние ключи и exclusion-ограничения PostgreSQL снимаются на время загрузки
+ * и создаются заново по сохранённым определениям: индекс по готовой таблице строится в разы быстрее,
+ * чем обновляется на каждую строку COPY, а внешний ключ проверяется одним соединением вместо триггера
+ * на строку. Первичные ключи и уникальные ограничения остаются.
+ * Всё в транзакции загрузки, так что при ошибке схема откатывается вместе с данными.
+ */
+@Slf4j
+class IndexSuspension {
+    private final List<String> dropStatements = new ArrayList<>();
+    private final List<String> createStatements = new ArrayList<>();
+
+    static IndexSuspension suspend(Connection connection, String... tables) throws SQLException {
+        IndexSuspension suspension = new IndexSuspension();
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return suspension;
+        }
+        String names = String.join(",", tables);
+        try (PreparedStatement constraints = connection.prepareStatement("""
+                SELECT c.conrelid::regclass::text, c.conname, pg_get_constraintdef(c.oid) FROM pg_constraint c
+                WHERE c.contype IN ('f', 'x') AND c.connamespace = current_schema()::regnamespace
+                AND c.conrelid::regclass::text = ANY (string_to_array(?, ','))
+                """)) {
+            constraints.setString(1, names);
+            try (ResultSet rows = constraints.executeQuery()) {
+                while (rows.next()) {
+                    suspension.dropStatements.add("ALTER TABLE " + rows.getString(1) + " DROP CONSTRAINT " + rows.getString(2));
+                    suspension.createStatements.add("ALTER TABLE " + rows.getString(1) + " ADD CONSTRAINT "
+                            + rows.getString(2) + " " + rows.getString(3));
+                }
+            }
+        }
+        try (PreparedStatement indexes = connection.prepareStatement("""
+                SELECT i.indexname, i.indexdef FROM pg_indexes i
+                WHERE i.schemaname = current_schema() AND i.tablename = ANY (string_to_array(?, ','))
+                AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conname = i.indexname
+                    AND c.connamespace = current_schema()::regnamespace)
+                """)) {
+            indexes.setString(1, names);
+            try (ResultSet rows = indexes.executeQuery()) {
+                while (rows.next()) {
+                    suspension.dropStatements.add("DROP INDEX " + rows.getString(1));
+                    suspension.createStatements.add(rows.getString(2));
+                }
+            }
+        }
+        execute(connection, suspension.dropStatements);
+        return suspension;
+    }
+
+    // Сначала индексы, затем ограничения — в обратном порядке снятия
+    void restore(Connection connection) throws SQLException {
+        long started = System.nanoTime();
+        execute(connection, createStatements.reversed());
+        if (!createStatements.isEmpty()) {
+            log.info("Индексы и ограничения созданы заново за {} мс", (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    private static void execute(Connection connection, List<String> statements) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                long started = System.nanoTime();
+                statement.execute(sql);
+                log.info("{} — {} мс", sql, (System.nanoTime() - started) / 1_000_000);
+            }
+        }
+    }
+}
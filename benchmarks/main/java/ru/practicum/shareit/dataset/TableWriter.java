@@ -0,0 +1,24 @@
+package ru.practicum.shareit.dataset;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Потоковая запись строк одной таблицы: COPY для PostgreSQL, многострочные INSERT для остальных БД.
+ */
+interface TableWriter extends AutoCloseable {
+
+    void row(Object... values) throws SQLException;
+
+    long rows();
+
+    @Override
+    void close() throws SQLException;
+
+    static TableWriter open(Connection connection, String table, String... columns) throws SQLException {
+        if ("PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return new CopyTableWriter(connection, table, columns);
+        }
+        return new BatchTableWriter(connection, table, columns);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.dataset;
+
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * Слова для названий, описаний, комментариев и запросов синтетических данных.
+ */
+public final class Vocabulary {
+    private static final String[] NAMES = {
+        "Дрель", "Перфоратор", "Шуруповёрт", "Стремянка", "Палатка", "Велосипед",
+        "Пила", "Самокат", "Проектор", "Лодка", "Генератор", "Мангал",
+        "Болгарка", "Спальник", "Байдарка", "Сноуборд", "Компрессор", "Коляска"
+    };
+    private static final String[] WORDS = {
+        "ударная", "аккумуляторная", "складная", "лёгкая", "туристическая", "алюминиевая",
+        "мощная", "компактная", "детская", "новая", "с кейсом", "для дачи", "с зарядкой",
+        "на выходные", "две скорости", "в хорошем состоянии", "без царапин", "с насадками",
+        "профессиональная", "надувная", "зимняя", "бесшумная", "с чехлом", "электрическая"
+    };
+
+    private Vocabulary() {
+    }
+
+    public static String name(RandomGenerator random) {
+        return NAMES[random.nextInt(NAMES.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+    }
+
+    public static String words(RandomGenerator random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    public static String request(RandomGenerator random) {
+        return "Нужна " + NAMES[random.nextInt(NAMES.length)].toLowerCase(Locale.ROOT) + " " + words(random, 2 + random.nextInt(6));
+    }
+}
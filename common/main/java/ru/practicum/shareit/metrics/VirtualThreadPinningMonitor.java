@@ -0,0 +1,89 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Диагностика виртуальных потоков через JFR: jvm.threads.virtual.pinned — виртуальный поток
+ * заблокировался, не отпустив поток-носитель (synchronized, native), дольше threshold;
+ * jvm.threads.virtual.submit.failed — не удалось запустить или продолжить виртуальный поток.
+ * Стек закрепления пишется в лог один раз на место в коде.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED = "jdk.VirtualThreadSubmitFailed";
+    private static final int MAX_LOGGED_SITES = 100;
+    private static final int LOGGED_FRAMES = 15;
+
+    private final Duration threshold;
+    private final Timer pinned;
+    private final Counter submitFailed;
+    private final Set<String> loggedSites = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry, Duration threshold) {
+        this.threshold = threshold;
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Блокировки виртуальных потоков с удержанием потока-носителя")
+                .register(registry);
+        this.submitFailed = Counter.builder("jvm.threads.virtual.submit.failed")
+                .description("Неудачные запуски и продолжения виртуальных потоков")
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED).withThreshold(threshold).withStackTrace();
+        recording.enable(SUBMIT_FAILED);
+        recording.onEvent(PINNED, this::onPinned);
+        recording.onEvent(SUBMIT_FAILED, event -> submitFailed.increment());
+        recording.startAsync();
+        stream = recording;
+        log.info("Мониторинг закрепления виртуальных потоков включён, порог {} мс", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        stream.close();
+        stream = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return;
+        }
+        String stack = stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(VirtualThreadPinningMonitor::frame)
+                .collect(Collectors.joining("\n\tat ", "\tat ", ""));
+        if (loggedSites.size() < MAX_LOGGED_SITES && loggedSites.add(stack)) {
+            log.warn("Виртуальный поток закреплён на {} мс:\n{}", event.getDuration().toMillis(), stack);
+        }
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + "(line " + frame.getLineNumber() + ")";
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor =
+            new VirtualThreadPinningMonitor(registry, Duration.ofMillis(10));
+
+    @AfterEach
+    void tearDown() {
+        if (monitor.isRunning()) {
+            monitor.stop();
+        }
+    }
+
+    @Test
+    void start_whenVirtualThreadSleepsInsideSynchronized_thenPinningRecorded() throws Exception {
+        monitor.start();
+        Object lock = new Object();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                sleep(50);
+            }
+        }).join();
+
+        Timer pinned = registry.get("jvm.threads.virtual.pinned").timer();
+        // События JFR доходят до потока с задержкой около секунды
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (pinned.count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(1, pinned.count());
+        assertTrue(pinned.max(TimeUnit.MILLISECONDS) >= 40);
+    }
+
+    @Test
+    void stop_thenNotRunning() {
+        monitor.start();
+        assertTrue(monitor.isRunning());
+
+        monitor.stop();
+
+        assertFalse(monitor.isRunning());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,15 +2,16 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.booking.dto.BookingDecisionsRequest;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,33 +19,50 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         ClientHttpConnector connector) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(connector)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> createBooking(long userId, NewBookingRequest request) {
+    public Mono<Void> createBooking(long userId, NewBookingRequest request) {
         return post("", userId, request);
     }
 
-    public ResponseEntity<Object> approveBooking(long userId, long bookingId, boolean approved) {
+    public Mono<Void> approveBooking(long userId, long bookingId, boolean approved) {
         Map<String, Object> params = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, params, null);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, long bookingId) {
+    public Mono<Void> decideBookings(long userId, BookingDecisionsRequest request) {
+        return patch("", userId, request);
+    }
+
+    public Mono<Void> getBooking(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state) {
-        return get("?state={state}", userId, Map.of("state", state));
+    public Mono<Void> getBookings(long userId, BookingState state, String cursor, int size) {
+        return getPage("", userId, state, cursor, size);
+    }
+
+    public Mono<Void> getBookingsByOwner(long userId, BookingState state, String cursor, int size) {
+        return getPage("/owner", userId, state, cursor, size);
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(long userId, BookingState state) {
-        return get("/owner?state={state}", userId, Map.of("state", state));
+    // Курсор следующей страницы сервер возвращает в заголовке X-Next-Cursor, он проходит клиенту как есть
+    private Mono<Void> getPage(String path, long userId, BookingState state, String cursor, int size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state);
+        parameters.put("size", size);
+        if (cursor == null) {
+            return get(path + "?state={state}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get(path + "?state={state}&size={size}&cursor={cursor}", userId, parameters);
     }
 }
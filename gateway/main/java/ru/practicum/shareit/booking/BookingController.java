@@ -4,9 +4,10 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionsRequest;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 
@@ -21,42 +22,54 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader(USER_ID_HEADER) long bookerId,
-                                                @Valid @RequestBody NewBookingRequest request) {
+    public Mono<Void> createBooking(@RequestHeader(USER_ID_HEADER) long bookerId,
+                                                      @Valid @RequestBody NewBookingRequest request) {
         log.info("Gateway: createBooking userId={}, request={}", bookerId, request);
         return bookingClient.createBooking(bookerId, request);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader(USER_ID_HEADER) long ownerId,
-                                                 @Positive @PathVariable("bookingId") long bookingId,
-                                                 @RequestParam("approved") boolean approved) {
+    public Mono<Void> approveBooking(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                                       @Positive @PathVariable("bookingId") long bookingId,
+                                                       @RequestParam("approved") boolean approved) {
         log.info("Gateway: approveBooking bookingId={}, ownerId={}, approved={}", bookingId, ownerId, approved);
         return bookingClient.approveBooking(ownerId, bookingId, approved);
     }
 
+    // Решения владельца по нескольким бронированиям за один переход на сервер
+    @PatchMapping
+    public Mono<Void> decideBookings(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                                       @Valid @RequestBody BookingDecisionsRequest request) {
+        log.info("Gateway: decideBookings ownerId={}, decisions={}", ownerId, request.decisions().size());
+        return bookingClient.decideBookings(ownerId, request);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader(USER_ID_HEADER) long userId,
-                                                 @Positive @PathVariable("bookingId") long bookingId) {
+    public Mono<Void> getBookingById(@RequestHeader(USER_ID_HEADER) long userId,
+                                                       @Positive @PathVariable("bookingId") long bookingId) {
         log.info("Gateway: getBookingById bookingId={}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader(USER_ID_HEADER) long userId,
-                                              @RequestParam(name = "state", defaultValue = "all") String stateParam) {
+    public Mono<Void> getBookings(@RequestHeader(USER_ID_HEADER) long userId,
+                                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                    @RequestParam(name = "cursor", required = false) String cursor,
+                                                    @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Gateway: getBookings state={}, userId={}", state, userId);
-        return bookingClient.getBookings(userId, state);
+        log.info("Gateway: getBookings state={}, userId={}, cursor={}, size={}", state, userId, cursor, size);
+        return bookingClient.getBookings(userId, state, cursor, size);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsByOwner(@RequestHeader(USER_ID_HEADER) long ownerId,
-                                                     @RequestParam(value = "state", defaultValue = "all") String stateParam) {
+    public Mono<Void> getBookingsByOwner(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                                           @RequestParam(value = "state", defaultValue = "all") String stateParam,
+                                                           @RequestParam(name = "cursor", required = false) String cursor,
+                                                           @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Gateway: getBookingsByOwner state={}, ownerId={}", state, ownerId);
-        return bookingClient.getBookingsByOwner(ownerId, state);
+        log.info("Gateway: getBookingsByOwner state={}, ownerId={}, cursor={}, size={}", state, ownerId, cursor, size);
+        return bookingClient.getBookingsByOwner(ownerId, state, cursor, size);
     }
 }
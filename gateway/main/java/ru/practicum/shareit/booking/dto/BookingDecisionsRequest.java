@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BookingDecisionsRequest(
+        @NotEmpty(message = "Список решений не должен быть пустым")
+        @Size(max = 500, message = "За один запрос — не больше 500 решений")
+        List<@Valid @NotNull BookingDecisionRequest> decisions) {
+}
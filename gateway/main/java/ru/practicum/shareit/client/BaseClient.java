@@ -1,111 +1,196 @@
 package ru.practicum.shareit.client;
 
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.HandlerMapping;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static ru.practicum.shareit.constants.HeaderConstants.USER_ID_HEADER;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    // Заголовки, которые относятся к соединению с сервером и не должны уходить клиенту
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            HttpHeaders.CONNECTION,
+            HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.UPGRADE,
+            HttpHeaders.TE,
+            HttpHeaders.TRAILER,
+            HttpHeaders.PROXY_AUTHENTICATE,
+            HttpHeaders.PROXY_AUTHORIZATION,
+            "Keep-Alive"
+    );
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+
+    protected final WebClient client;
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    public BaseClient(WebClient client) {
+        this.client = client;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<Void> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<Void> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, @Nullable Map<String, Object> parameters) {
+    protected Mono<Void> get(String path, @Nullable Map<String, Object> parameters) {
         return get(path, null, parameters);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<Void> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<Void> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<Void> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<Void> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<Void> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<Void> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<Void> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<Void> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<Void> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<Void> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+    /**
+     * Передаёт тело запроса на сервер и ответ сервера клиенту потоком, не собирая их в памяти шлюза.
+     * Чтение InputStream запроса блокирует, поэтому идёт на boundedElastic, а не на потоках HTTP-клиента.
+     * Каждая порция ответа сразу отправляется клиенту, чтобы итоги строк приходили по ходу загрузки.
+     */
+    protected Mono<Void> exchangeStream(String path, long userId, MediaType contentType, InputStream body,
+                                        HttpServletResponse target) {
+        Flux<DataBuffer> upload = DataBufferUtils.readInputStream(() -> body, DefaultDataBufferFactory.sharedInstance,
+                        STREAM_BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+        return client.post()
+                .uri(path)
+                .headers(headers -> {
+                    headers.setContentType(contentType);
+                    headers.set(USER_ID_HEADER, String.valueOf(userId));
+                })
+                .attributes(BaseClient::routeTemplate)
+                .body(BodyInserters.fromDataBuffers(upload))
+                .exchangeToMono(response -> relay(response, target, true));
+    }
+
+    private <T> Mono<Void> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpServletResponse target = currentResponse();
+        WebClient.RequestBodySpec request = client.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> defaultHeaders(headers, userId))
+                .attributes(BaseClient::routeTemplate);
+
+        WebClient.RequestHeadersSpec<?> shareitServerRequest = body != null ? request.bodyValue(body) : request;
+        return shareitServerRequest.exchangeToMono(response -> relay(response, target, false));
+    }
+
+    /**
+     * Переносит статус, заголовки и тело ответа сервера в ответ шлюза, не собирая тело в памяти.
+     * Контроллер возвращает этот Mono, поэтому поток Tomcat не ждёт сервер, а ответ дописывается
+     * в асинхронном режиме. Запись в ServletOutputStream блокирует и идёт на boundedElastic.
+     */
+    static Mono<Void> relay(ClientResponse response, HttpServletResponse target, boolean flushEachBuffer) {
+        target.setStatus(response.statusCode().value());
+        response.headers().asHttpHeaders().forEach((name, values) -> {
+            if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                values.forEach(value -> target.addHeader(name, value));
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        });
+        return Mono.fromCallable(target::getOutputStream)
+                .flatMapMany(out -> DataBufferUtils.write(response.bodyToFlux(DataBuffer.class)
+                                .publishOn(Schedulers.boundedElastic()), out)
+                        .doOnNext(buffer -> {
+                            DataBufferUtils.release(buffer);
+                            if (flushEachBuffer) {
+                                flush(out);
+                            }
+                        }))
+                .then()
+                .onErrorMap(UncheckedIOException.class, UncheckedIOException::getCause);
+    }
+
+    private static void flush(OutputStream out) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
+    // Ответ берётся в потоке контроллера: после возврата Mono контекст запроса в потоках клиента недоступен
+    private static HttpServletResponse currentResponse() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes servletAttributes
+                && servletAttributes.getResponse() != null) {
+            return servletAttributes.getResponse();
+        }
+        throw new IllegalStateException("Proxied call outside of an HTTP request");
+    }
+
+    private static void defaultHeaders(HttpHeaders headers, Long userId) {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set(USER_ID_HEADER, String.valueOf(userId));
         }
-        return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    // id в путях клиентов подставлены строкой, поэтому в метрику http.client.requests идёт шаблон
+    // входящего маршрута шлюза — маршруты шлюза и сервера совпадают
+    private static void routeTemplate(Map<String, Object> attributes) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes servletAttributes
+                && servletAttributes.getRequest().getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)
+                instanceof String pattern) {
+            attributes.put(URI_TEMPLATE_ATTRIBUTE, pattern);
         }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
-
-        return responseBuilder.build();
     }
 }
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.nio.AsyncConnectionEndpoint;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.config.Lookup;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+public class InstrumentedConnectionManager extends PoolingAsyncClientConnectionManager {
+    private static final String METRIC_PREFIX = "gateway.http.pool";
+
+    private final Timer leaseTimer;
+
+    public InstrumentedConnectionManager(Lookup<TlsStrategy> tlsStrategyLookup, MeterRegistry registry) {
+        super(tlsStrategyLookup, PoolConcurrencyPolicy.STRICT, PoolReusePolicy.LIFO, TimeValue.NEG_ONE_MILLISECOND);
+        this.leaseTimer = Timer.builder(METRIC_PREFIX + ".wait")
+                .description("Время ожидания соединения из пула")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        registerGauge(registry, "leased", PoolStats::getLeased);
+        registerGauge(registry, "pending", PoolStats::getPending);
+        registerGauge(registry, "available", PoolStats::getAvailable);
+        registerGauge(registry, "max", PoolStats::getMax);
+    }
+
+    @Override
+    public Future<AsyncConnectionEndpoint> lease(String id, HttpRoute route, Object state, Timeout requestTimeout,
+                                                 FutureCallback<AsyncConnectionEndpoint> callback) {
+        long startNanos = System.nanoTime();
+        return super.lease(id, route, state, requestTimeout, new FutureCallback<>() {
+            @Override
+            public void completed(AsyncConnectionEndpoint endpoint) {
+                record();
+                if (callback != null) {
+                    callback.completed(endpoint);
+                }
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                record();
+                if (callback != null) {
+                    callback.failed(ex);
+                }
+            }
+
+            @Override
+            public void cancelled() {
+                record();
+                if (callback != null) {
+                    callback.cancelled();
+                }
+            }
+
+            private void record() {
+                leaseTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private void registerGauge(MeterRegistry registry, String name, ToIntFunction<PoolStats> value) {
+        Gauge.builder(METRIC_PREFIX + "." + name, this, manager -> value.applyAsInt(manager.getTotalStats()))
+                .register(registry);
+    }
+}
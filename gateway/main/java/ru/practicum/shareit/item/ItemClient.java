@@ -1,17 +1,21 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.NewCommentRequest;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -19,36 +23,61 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ClientHttpConnector connector) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(connector)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> createItem(long ownerId, NewItemRequest request) {
+    public Mono<Void> createItem(long ownerId, NewItemRequest request) {
         return post("", ownerId, request);
     }
 
-    public ResponseEntity<Object> updateItem(long itemId, long ownerId, UpdateItemRequest request) {
+    public Mono<Void> createItems(long ownerId, MediaType contentType, InputStream body, HttpServletResponse response) {
+        return exchangeStream("/bulk", ownerId, contentType, body, response);
+    }
+
+    public Mono<Void> updateItem(long itemId, long ownerId, UpdateItemRequest request) {
         return patch("/" + itemId, ownerId, request);
     }
 
-    public ResponseEntity<Object> getItem(long userId, long itemId) {
+    public Mono<Void> getItem(long userId, long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getPersonalItems(long ownerId) {
+    public Mono<Void> getPersonalItems(long ownerId) {
         return get("", ownerId);
     }
 
-    public ResponseEntity<Object> searchItems(String text) {
-        return get("/search?text={text}", Map.of("text", text));
+    // start/end — окно, в котором вещь не должна быть занята; передаются только вместе
+    public Mono<Void> searchItems(String text, int from, int size,
+                                                    LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (start == null && end == null) {
+            return get("/search?text={text}&from={from}&size={size}", parameters);
+        }
+        parameters.put("start", start);
+        parameters.put("end", end);
+        return get("/search?text={text}&from={from}&size={size}&start={start}&end={end}", parameters);
+    }
+
+    // Свободные окна считает сервер, клиенту не нужно выгружать бронирования вещи
+    public Mono<Void> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        return get("/" + itemId + "/availability?from={from}&to={to}", Map.of("from", from, "to", to));
+    }
+
+    public Mono<Void> getRequestMatches(long userId, long itemId) {
+        return get("/" + itemId + "/request-matches", userId);
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, NewCommentRequest comment) {
+    public Mono<Void> addComment(long userId, long itemId, NewCommentRequest comment) {
         return post("/" + itemId + "/comment", userId, comment);
     }
 }
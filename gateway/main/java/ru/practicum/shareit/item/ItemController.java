@@ -1,17 +1,25 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.NewCommentRequest;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+
 import static ru.practicum.shareit.constants.HeaderConstants.USER_ID_HEADER;
 
 @RestController
@@ -23,43 +31,80 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader(USER_ID_HEADER) long ownerId,
-                                             @RequestBody @Valid NewItemRequest request) {
+    public Mono<Void> createItem(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                                   @RequestBody @Valid NewItemRequest request) {
         log.info("Gateway: createItem ownerId={}, request={}", ownerId, request);
         return itemClient.createItem(ownerId, request);
     }
 
+    // Строки проверяет сервер по тем же ограничениям, что и NewItemRequest: шлюз передаёт загрузку потоком
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public Mono<Void> createItems(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                  HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        log.info("Gateway: createItems ownerId={}, contentType={}", ownerId, request.getContentType());
+        return itemClient.createItems(ownerId, MediaType.parseMediaType(request.getContentType()), request.getInputStream(),
+                response);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(USER_ID_HEADER) long ownerId,
-                                             @Positive @PathVariable("itemId") long itemId,
-                                             @RequestBody UpdateItemRequest request) {
+    public Mono<Void> updateItem(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                                   @Positive @PathVariable("itemId") long itemId,
+                                                   @RequestBody UpdateItemRequest request) {
         log.info("Gateway: updateItem itemId={}, ownerId={}, request={}", itemId, ownerId, request);
         return itemClient.updateItem(itemId, ownerId, request);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader(USER_ID_HEADER) long userId,
-                                              @Positive @PathVariable("itemId") long itemId) {
+    public Mono<Void> getItemById(@RequestHeader(USER_ID_HEADER) long userId,
+                                                    @Positive @PathVariable("itemId") long itemId) {
         log.info("Gateway: getItemById itemId={}, userId={}", itemId, userId);
         return itemClient.getItem(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<Void> getAvailability(@Positive @PathVariable("itemId") long itemId,
+                                                        @RequestParam("from")
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime from,
+                                                        @RequestParam("to")
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime to) {
+        log.info("Gateway: getAvailability itemId={}, from={}, to={}", itemId, from, to);
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/{itemId}/request-matches")
+    public Mono<Void> getRequestMatches(@Positive @PathVariable("itemId") long itemId,
+                                                          @RequestHeader(USER_ID_HEADER) long userId) {
+        log.info("Gateway: getRequestMatches itemId={}, userId={}", itemId, userId);
+        return itemClient.getRequestMatches(userId, itemId);
+    }
+
     @GetMapping
-    public ResponseEntity<Object> getPersonalItems(@RequestHeader(USER_ID_HEADER) long ownerId) {
+    public Mono<Void> getPersonalItems(@RequestHeader(USER_ID_HEADER) long ownerId) {
         log.info("Gateway: getPersonalItems ownerId={}", ownerId);
         return itemClient.getPersonalItems(ownerId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@NotBlank @RequestParam("text") String text) {
-        log.info("Gateway: searchItems text={}", text);
-        return itemClient.searchItems(text);
+    public Mono<Void> searchItems(@NotBlank @RequestParam("text") String text,
+                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
+                                                    @Positive @RequestParam(name = "size", defaultValue = "10") int size,
+                                                    @RequestParam(name = "start", required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                    LocalDateTime start,
+                                                    @RequestParam(name = "end", required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                    LocalDateTime end) {
+        log.info("Gateway: searchItems text={}, from={}, size={}, start={}, end={}", text, from, size, start, end);
+        return itemClient.searchItems(text, from, size, start, end);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(USER_ID_HEADER) long userId,
-                                             @Positive @PathVariable("itemId") long itemId,
-                                             @RequestBody @Valid NewCommentRequest comment) {
+    public Mono<Void> addComment(@RequestHeader(USER_ID_HEADER) long userId,
+                                                   @Positive @PathVariable("itemId") long itemId,
+                                                   @RequestBody @Valid NewCommentRequest comment) {
         log.info("Gateway: addComment userId={}, itemId={}, comment={}", userId, itemId, comment);
         return itemClient.addComment(userId, itemId, comment);
     }
@@ -2,41 +2,55 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.NewItemRequestDto;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                             ClientHttpConnector connector) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(connector)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> createRequest(long userId, NewItemRequestDto request) {
+    public Mono<Void> createRequest(long userId, NewItemRequestDto request) {
         return post("", userId, request);
     }
 
-    public ResponseEntity<Object> getRequestsByOwner(long ownerId) {
+    public Mono<Void> getRequestsByOwner(long ownerId) {
         return get("", ownerId);
     }
 
-    public ResponseEntity<Object> getRequests() {
-        return get("/all");
+    // Курсор следующей страницы сервер возвращает в заголовке X-Next-Cursor, он проходит клиенту как есть
+    public Mono<Void> getRequests(long userId, String cursor, int size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("size", size);
+        if (cursor == null) {
+            return get("/all?size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("/all?size={size}&cursor={cursor}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getRequestById(long userId, long requestId) {
+    public Mono<Void> getRequestById(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
+
+    public Mono<Void> getItemMatches(long userId, long requestId) {
+        return get("/" + requestId + "/matches", userId);
+    }
 }
@@ -4,9 +4,9 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.NewItemRequestDto;
 
 import static ru.practicum.shareit.constants.HeaderConstants.USER_ID_HEADER;
@@ -20,28 +20,37 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader(USER_ID_HEADER) long userId,
-                                                @RequestBody @Valid NewItemRequestDto request) {
+    public Mono<Void> createRequest(@RequestHeader(USER_ID_HEADER) long userId,
+                                                      @RequestBody @Valid NewItemRequestDto request) {
         log.info("Gateway: createRequest userId={}, request={}", userId, request);
         return itemRequestClient.createRequest(userId, request);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getRequestsByOwner(@RequestHeader(USER_ID_HEADER) long ownerId) {
+    public Mono<Void> getRequestsByOwner(@RequestHeader(USER_ID_HEADER) long ownerId) {
         log.info("Gateway: getRequestByOwner ownerId={}", ownerId);
         return itemRequestClient.getRequestsByOwner(ownerId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests() {
-        log.info("Gateway: getAllRequests");
-        return itemRequestClient.getRequests();
+    public Mono<Void> getAllRequests(@RequestHeader(USER_ID_HEADER) long userId,
+                                                       @RequestParam(name = "cursor", required = false) String cursor,
+                                                       @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+        log.info("Gateway: getAllRequests userId={}, cursor={}, size={}", userId, cursor, size);
+        return itemRequestClient.getRequests(userId, cursor, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@Positive @PathVariable("requestId") long requestId,
-                                                 @RequestHeader(USER_ID_HEADER) long userId) {
+    public Mono<Void> getRequestById(@Positive @PathVariable("requestId") long requestId,
+                                                       @RequestHeader(USER_ID_HEADER) long userId) {
         log.info("Gateway: getRequestById requestId={}, userId={}", requestId, userId);
         return itemRequestClient.getRequestById(userId, requestId);
     }
+
+    @GetMapping("/{requestId}/matches")
+    public Mono<Void> getItemMatches(@Positive @PathVariable("requestId") long requestId,
+                                                       @RequestHeader(USER_ID_HEADER) long userId) {
+        log.info("Gateway: getItemMatches requestId={}, userId={}", requestId, userId);
+        return itemRequestClient.getItemMatches(userId, requestId);
+    }
 }
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.client;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.constants.HeaderConstants.USER_ID_HEADER;
+
+class BaseClientTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private MockWebServer server;
+    private TestClient client;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new TestClient(WebClient.create(server.url("/items").toString()));
+        response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), response));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        RequestContextHolder.resetRequestAttributes();
+        server.shutdown();
+    }
+
+    @Test
+    void get_whenServerReturnsError_thenStatusAndBodyRelayed() throws Exception {
+        server.enqueue(new MockResponse()
+                .setResponseCode(404)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("{\"error\":\"Item not found\"}"));
+
+        client.get("/42", 7L).block(TIMEOUT);
+
+        RecordedRequest request = server.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(request);
+        assertEquals("/items/42", request.getPath());
+        assertEquals("7", request.getHeader(USER_ID_HEADER));
+        assertEquals(404, response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        assertEquals("{\"error\":\"Item not found\"}", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void get_whenServerSendsHopByHopHeaders_thenOnlyEndToEndHeadersRelayed() throws Exception {
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader("Keep-Alive", "timeout=60")
+                .setHeader(HttpHeaders.TRAILER, "X-Checksum")
+                .setHeader(HttpHeaders.UPGRADE, "h2c")
+                .setHeader(HttpHeaders.CACHE_CONTROL, "no-store")
+                .setBody("[]"));
+
+        client.get("", 7L).block(TIMEOUT);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("no-store", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertFalse(response.containsHeader("Keep-Alive"));
+        assertFalse(response.containsHeader(HttpHeaders.TRAILER));
+        assertFalse(response.containsHeader(HttpHeaders.UPGRADE));
+        assertFalse(response.containsHeader(HttpHeaders.CONTENT_LENGTH));
+        assertEquals("[]", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void get_whenBodyLargerThanCodecLimit_thenRelayedWhole() throws Exception {
+        String body = "x".repeat(17 * 1024 * 1024);
+        server.enqueue(new MockResponse().setBody(body));
+
+        client.get("", 7L).block(TIMEOUT);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(body.length(), response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void delete_whenServerReturnsNoContent_thenNothingWritten() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(204));
+
+        client.delete("/42").block(TIMEOUT);
+
+        assertEquals(204, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void exchangeStream_whenServerRespondsByLines_thenUploadAndResultsRelayed() throws Exception {
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                .setBody("{\"line\":1,\"id\":1}\n{\"created\":1,\"failed\":0}\n"));
+        MockHttpServletResponse target = new MockHttpServletResponse();
+
+        client.exchangeStream("/bulk", 7L, MediaType.APPLICATION_NDJSON,
+                new ByteArrayInputStream("{\"name\":\"Дрель\"}\n".getBytes(StandardCharsets.UTF_8)), target)
+                .block(TIMEOUT);
+
+        RecordedRequest request = server.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(request);
+        assertEquals("{\"name\":\"Дрель\"}\n", request.getBody().readUtf8());
+        assertEquals(200, target.getStatus());
+        assertEquals("{\"line\":1,\"id\":1}\n{\"created\":1,\"failed\":0}\n",
+                target.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void get_whenCalledOutsideRequest_thenIllegalStateException() {
+        RequestContextHolder.resetRequestAttributes();
+
+        assertThrows(IllegalStateException.class, () -> client.get("", 7L));
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(WebClient client) {
+            super(client);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.loadtest;
+
+/**
+ * HTTP-вызов шлюза. В этом же виде строки журнала вызовов (JSON Lines) для --record и --replay:
+ * offsetMs — смещение от начала прогона, userId уходит в X-Sharer-User-Id, body — JSON тела или null.
+ */
+public record Call(String endpoint, String method, String path, Long userId, String body, long offsetMs) {
+
+    public static Call get(String endpoint, String path, Long userId) {
+        return new Call(endpoint, "GET", path, userId, null, 0);
+    }
+
+    public static Call send(String endpoint, String method, String path, Long userId, String body) {
+        return new Call(endpoint, method, path, userId, body, 0);
+    }
+
+    public Call at(long offsetMs) {
+        return new Call(endpoint, method, path, userId, body, offsetMs);
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Журнал вызовов в JSON Lines: одна строка — один {@link Call}.
+ * Пишется при --record, читается при --replay; строки могут идти не по порядку offsetMs.
+ */
+class CallLog implements AutoCloseable {
+    private final ObjectMapper json;
+    private final BufferedWriter writer;
+
+    CallLog(Path path, ObjectMapper json) throws IOException {
+        this.json = json;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.writer = Files.newBufferedWriter(path);
+    }
+
+    synchronized void write(Call call) {
+        try {
+            writer.write(json.writeValueAsString(call));
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<Call> read(Path path, ObjectMapper json) throws IOException {
+        List<Call> calls = new ArrayList<>();
+        for (String line : Files.readAllLines(path)) {
+            if (!line.isBlank()) {
+                calls.add(json.readValue(line, Call.class));
+            }
+        }
+        calls.sort(Comparator.comparingLong(Call::offsetMs));
+        return calls;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Синхронные вызовы шлюза на виртуальных потоках: поток блокируется на ответе, не занимая поток ОС.
+ */
+class GatewayClient {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final HttpClient http;
+    private final URI gateway;
+    private final Duration timeout;
+
+    GatewayClient(URI gateway, Duration timeout) {
+        this.gateway = gateway;
+        this.timeout = timeout;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    Response send(Call call) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(gateway.resolve(call.path()))
+                .timeout(timeout)
+                .header("Accept", "application/json");
+        if (call.userId() != null) {
+            request.header(USER_ID_HEADER, String.valueOf(call.userId()));
+        }
+        if (call.body() != null) {
+            request.header("Content-Type", "application/json")
+                    .method(call.method(), HttpRequest.BodyPublishers.ofString(call.body()));
+        } else {
+            request.method(call.method(), HttpRequest.BodyPublishers.noBody());
+        }
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        return new Response(response.statusCode(), response.body());
+    }
+
+    record Response(int status, String body) {
+
+        boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки и исходы по эндпоинтам. Потоки нагрузки пишут в {@link Recorder} без блокировок,
+ * интервальные гистограммы забирает и копит один поток отчёта.
+ * Задержка считается от запланированного времени вызова, так что очередь на стороне клиента
+ * при насыщении попадает в замер, а не прячется (coordinated omission).
+ */
+class LoadStats {
+    // До минуты в микросекундах с тремя значащими цифрами
+    private static final long HIGHEST_MICROS = 60_000_000;
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+
+    void record(String endpoint, long latencyNanos, int status) {
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+        stats.recorder.recordValue(Math.min(HIGHEST_MICROS, Math.max(1, latencyNanos / 1_000)));
+        stats.outcome(status).increment();
+    }
+
+    // Вызов не отправлен: занято --max-in-flight
+    void reject() {
+        rejected.increment();
+    }
+
+    /**
+     * Переносит накопленное с прошлого вызова в итог и возвращает строку для прогресса.
+     */
+    String interval(Duration elapsed) {
+        long requests = 0;
+        Histogram all = new Histogram(HIGHEST_MICROS, 3);
+        for (EndpointStats stats : endpoints.values()) {
+            Histogram interval = stats.recorder.getIntervalHistogram();
+            stats.total.add(interval);
+            all.add(interval);
+            requests += interval.getTotalCount();
+        }
+        return String.format("%5ds  %7d вызовов  p50 %7.1f мс  p99 %8.1f мс  max %8.1f мс  отклонено %d",
+                elapsed.toSeconds(), requests, millis(all.getValueAtPercentile(50)),
+                millis(all.getValueAtPercentile(99)), millis(all.getMaxValue()), rejected.sum());
+    }
+
+    // Конец прогрева: всё записанное до этого момента в отчёт не попадает
+    void reset() {
+        interval(Duration.ZERO);
+        rejected.reset();
+        for (EndpointStats stats : endpoints.values()) {
+            stats.total.reset();
+            stats.ok.reset();
+            stats.clientErrors.reset();
+            stats.serverErrors.reset();
+            stats.failures.reset();
+        }
+    }
+
+    /**
+     * Таблица по эндпоинтам в out и распределение задержек каждого в dir/&lt;endpoint&gt;.hgrm.
+     */
+    void report(PrintStream out, Duration measured, Path dir) throws IOException {
+        interval(measured);
+        Files.createDirectories(dir);
+        double seconds = Math.max(1, measured.toMillis()) / 1000.0;
+        out.printf("%-16s %9s %8s %7s %7s %7s %7s %9s %9s %9s %9s %9s%n", "endpoint", "вызовов", "в сек",
+                "2xx", "4xx", "5xx", "ошибок", "p50 мс", "p90 мс", "p99 мс", "p99.9 мс", "max мс");
+        for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(endpoints).entrySet()) {
+            EndpointStats stats = entry.getValue();
+            Histogram total = stats.total;
+            out.printf("%-16s %9d %8.1f %7d %7d %7d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(),
+                    total.getTotalCount(), total.getTotalCount() / seconds,
+                    stats.ok.sum(), stats.clientErrors.sum(), stats.serverErrors.sum(), stats.failures.sum(),
+                    millis(total.getValueAtPercentile(50)), millis(total.getValueAtPercentile(90)),
+                    millis(total.getValueAtPercentile(99)), millis(total.getValueAtPercentile(99.9)),
+                    millis(total.getMaxValue()));
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(dir.resolve(entry.getKey() + ".hgrm")))) {
+                // Значения в микросекундах, в файле — в миллисекундах
+                total.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        out.printf("Отклонено клиентом (--max-in-flight): %d%n", rejected.sum());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class EndpointStats {
+        private final Recorder recorder = new Recorder(HIGHEST_MICROS, 3);
+        private final Histogram total = new Histogram(HIGHEST_MICROS, 3);
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        // Таймауты и обрывы соединения
+        private final LongAdder failures = new LongAdder();
+
+        private LongAdder outcome(int status) {
+            if (status < 0) {
+                return failures;
+            }
+            if (status >= 500) {
+                return serverErrors;
+            }
+            return status >= 400 ? clientErrors : ok;
+        }
+    }
+}
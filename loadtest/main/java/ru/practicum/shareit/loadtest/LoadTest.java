@@ -0,0 +1,203 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Нагрузка на REST API шлюза, каждый вызов — в своём виртуальном потоке.
+ * <p>
+ * Открытая модель (--rate): вызовы запускаются по расписанию независимо от ответов, как приходят
+ * пользователи в проде, — так видно насыщение. Закрытая модель (--concurrency): N пользователей,
+ * каждый шлёт следующий вызов после ответа на предыдущий. --replay воспроизводит журнал вызовов
+ * с исходными интервалами (--speed ускоряет), --record пишет такой журнал во время прогона.
+ * Аргументы и значения по умолчанию — в README.
+ */
+@Slf4j
+public class LoadTest {
+    private final GatewayClient client;
+    private final LoadStats stats = new LoadStats();
+    private final Semaphore inFlight;
+    private final CallLog record;
+    private final Scenario scenario;
+    private long startNanos;
+
+    private LoadTest(GatewayClient client, int maxInFlight, CallLog record, Scenario scenario) {
+        this.client = client;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.record = record;
+        this.scenario = scenario;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = parse(args);
+        ObjectMapper json = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        GatewayClient client = new GatewayClient(URI.create(options.getOrDefault("gateway", "http://localhost:8080")),
+                duration(options, "timeout", "PT10S"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "10000"));
+        Duration warmup = duration(options, "warmup", "PT10S");
+        Duration interval = duration(options, "report-interval", "PT10S");
+        Path out = Path.of(options.getOrDefault("out", "target/loadtest"));
+
+        Scenario scenario = null;
+        List<Call> replay = null;
+        if (options.containsKey("replay")) {
+            replay = CallLog.read(Path.of(options.get("replay")), json);
+            log.info("Воспроизведение {} вызовов из {}", replay.size(), options.get("replay"));
+        } else {
+            WorkingSet set = new WorkingSet(client, json);
+            set.create(Integer.parseInt(options.getOrDefault("owners", "20")),
+                    Integer.parseInt(options.getOrDefault("items-per-owner", "25")),
+                    Integer.parseInt(options.getOrDefault("bookers", "200")),
+                    Integer.parseInt(options.getOrDefault("comment-pairs", "100")));
+            Operation.Mix mix = options.containsKey("mix")
+                    ? Operation.Mix.parse(options.get("mix"))
+                    : Operation.Mix.defaults();
+            log.info("Смесь {}", mix);
+            scenario = new Scenario(set, mix, Integer.parseInt(options.getOrDefault("dataset-items", "0")), json);
+        }
+
+        try (CallLog record = options.containsKey("record") ? new CallLog(Path.of(options.get("record")), json) : null) {
+            LoadTest test = new LoadTest(client, maxInFlight, record, scenario);
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+            test.startNanos = System.nanoTime();
+            reporter.scheduleAtFixedRate(() -> log.info(test.stats.interval(test.elapsed())),
+                    interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+            reporter.schedule(() -> {
+                test.stats.reset();
+                log.info("Прогрев {} окончен, статистика сброшена", warmup);
+            }, warmup.toMillis(), TimeUnit.MILLISECONDS);
+
+            if (replay != null) {
+                test.replay(replay, Double.parseDouble(options.getOrDefault("speed", "1")));
+            } else if (options.containsKey("concurrency")) {
+                test.closed(Integer.parseInt(options.get("concurrency")), duration(options, "duration", "PT1M"));
+            } else {
+                test.open(Double.parseDouble(options.getOrDefault("rate", "100")), duration(options, "duration", "PT1M"));
+            }
+
+            reporter.shutdownNow();
+            reporter.awaitTermination(interval.toMillis(), TimeUnit.MILLISECONDS);
+            Duration measured = test.elapsed().minus(warmup);
+            test.stats.report(System.out, measured.isNegative() ? test.elapsed() : measured, out);
+            log.info("Распределения задержек по эндпоинтам: {}", out.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Вызовы с постоянной частотой rate в секунду; задержка считается от запланированного момента.
+     */
+    private void open(double rate, Duration duration) {
+        long period = (long) (1_000_000_000 / rate);
+        long calls = duration.toNanos() / period;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < calls; i++) {
+                long intended = startNanos + i * period;
+                dispatch(executor, intended, () -> scenario.next(ThreadLocalRandom.current()));
+            }
+        }
+    }
+
+    private void closed(int concurrency, Duration duration) {
+        long deadline = startNanos + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                executor.execute(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        execute(scenario.next(ThreadLocalRandom.current()), System.nanoTime());
+                    }
+                });
+            }
+        }
+    }
+
+    private void replay(List<Call> calls, double speed) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Call call : calls) {
+                long intended = startNanos + (long) (call.offsetMs() * 1_000_000 / speed);
+                dispatch(executor, intended, () -> call);
+            }
+        }
+    }
+
+    private void dispatch(ExecutorService executor, long intended, Supplier<Call> call) {
+        long wait = intended - System.nanoTime();
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+        if (!inFlight.tryAcquire()) {
+            stats.reject();
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                execute(call.get(), intended);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void execute(Call call, long intended) {
+        int status;
+        try {
+            GatewayClient.Response response = client.send(call);
+            status = response.status();
+            if (scenario != null) {
+                scenario.onResponse(call, response);
+            }
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        stats.record(call.endpoint(), System.nanoTime() - intended, status);
+        if (record != null) {
+            record.write(call.at((intended - startNanos) / 1_000_000));
+        }
+    }
+
+    private Duration elapsed() {
+        return Duration.ofNanos(System.nanoTime() - startNanos);
+    }
+
+    private static Duration duration(Map<String, String> options, String name, String defaultValue) {
+        return Duration.parse(options.getOrDefault(name, defaultValue));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Неизвестный аргумент: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Операции смеси нагрузки. Имя в нижнем регистре — эндпоинт в отчёте и ключ в --mix.
+ */
+enum Operation {
+    SEARCH(30),
+    ITEM(25),
+    OWNER_ITEMS(10),
+    OWNER_BOOKINGS(10),
+    BOOK(12),
+    APPROVE(8),
+    COMMENT(5);
+
+    private final int defaultWeight;
+
+    Operation(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    String endpoint() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Взвешенный выбор операции; веса — относительные, их сумма не обязана быть 100.
+     */
+    static final class Mix {
+        private final Operation[] operations;
+        private final int[] cumulative;
+
+        private Mix(Map<Operation, Integer> weights) {
+            operations = weights.keySet().toArray(Operation[]::new);
+            cumulative = new int[operations.length];
+            int sum = 0;
+            for (int i = 0; i < operations.length; i++) {
+                sum += weights.get(operations[i]);
+                cumulative[i] = sum;
+            }
+            if (sum <= 0) {
+                throw new IllegalArgumentException("Сумма весов смеси должна быть больше нуля");
+            }
+        }
+
+        static Mix defaults() {
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            for (Operation operation : values()) {
+                weights.put(operation, operation.defaultWeight);
+            }
+            return new Mix(weights);
+        }
+
+        // Формат: search:50,item:30,book:20 — не указанные операции не выполняются
+        static Mix parse(String spec) {
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            for (String part : spec.split(",")) {
+                String[] pair = part.trim().split(":");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Ожидается операция:вес, получено " + part);
+                }
+                weights.put(valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(pair[1].trim()));
+            }
+            return new Mix(weights);
+        }
+
+        Operation next(ThreadLocalRandom random) {
+            int roll = random.nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (roll < cumulative[i]) {
+                    return operations[i];
+                }
+            }
+            throw new IllegalStateException("Недостижимо");
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < operations.length; i++) {
+                text.append(i > 0 ? "," : "").append(operations[i].endpoint()).append(':')
+                        .append(cumulative[i] - (i > 0 ? cumulative[i - 1] : 0));
+            }
+            return text.toString();
+        }
+    }
+}
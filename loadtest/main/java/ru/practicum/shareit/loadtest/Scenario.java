@@ -0,0 +1,109 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Вызовы смеси по рабочему набору. Чтение вещей может идти и по заранее загруженному набору
+ * (id 1..datasetItems, см. DatasetLoader), запись — только по вещам рабочего набора,
+ * у которых известен владелец.
+ */
+class Scenario {
+    private final WorkingSet set;
+    private final Operation.Mix mix;
+    private final int datasetItems;
+    private final ObjectMapper json;
+
+    Scenario(WorkingSet set, Operation.Mix mix, int datasetItems, ObjectMapper json) {
+        this.set = set;
+        this.mix = mix;
+        this.datasetItems = datasetItems;
+        this.json = json;
+    }
+
+    Call next(ThreadLocalRandom random) {
+        Operation operation = mix.next(random);
+        String endpoint = operation.endpoint();
+        return switch (operation) {
+            case SEARCH -> Call.get(endpoint, "/items/search?size=10&text="
+                    + URLEncoder.encode(pick(random, WorkingSet.WORDS), StandardCharsets.UTF_8), pick(random, set.bookers));
+            case ITEM -> Call.get(endpoint, "/items/" + readableItem(random), pick(random, set.bookers));
+            case OWNER_ITEMS -> Call.get(endpoint, "/items", pick(random, set.owners));
+            case OWNER_BOOKINGS -> Call.get(endpoint, "/bookings/owner?state=ALL&size=10", pick(random, set.owners));
+            case BOOK -> book(random);
+            case APPROVE -> approve(random);
+            case COMMENT -> comment(random);
+        };
+    }
+
+    // Созданные бронирования становятся кандидатами на approve
+    void onResponse(Call call, GatewayClient.Response response) {
+        if (!Operation.BOOK.endpoint().equals(call.endpoint()) || !response.isSuccess()) {
+            return;
+        }
+        try {
+            JsonNode booking = json.readTree(response.body());
+            set.addPending(booking.get("id").asLong(), booking.path("item").path("id").asLong());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Неожиданный ответ на создание бронирования: " + response.body(), e);
+        }
+    }
+
+    // Случайный интервал в ближайшие 10 лет: пересечения с уже созданными бронированиями редки
+    private Call book(ThreadLocalRandom random) {
+        long item = pick(random, set.items);
+        LocalDateTime start = LocalDateTime.now().plusDays(1 + random.nextInt(3650)).plusMinutes(random.nextInt(1440));
+        return Call.send(Operation.BOOK.endpoint(), "POST", "/bookings", pick(random, set.bookers),
+                body(Map.of("itemId", item, "start", start, "end", start.plusHours(1 + random.nextInt(72)))));
+    }
+
+    // Пока ждущих решения бронирований нет, вместо approve создаётся бронирование
+    private Call approve(ThreadLocalRandom random) {
+        long[] pending = set.pollPending();
+        if (pending == null) {
+            return book(random);
+        }
+        return Call.send(Operation.APPROVE.endpoint(), "PATCH",
+                "/bookings/" + pending[0] + "?approved=" + (random.nextInt(5) > 0), pending[1], null);
+    }
+
+    private Call comment(ThreadLocalRandom random) {
+        if (set.commentable.isEmpty()) {
+            return book(random);
+        }
+        long[] pair = set.commentable.get(random.nextInt(set.commentable.size()));
+        return Call.send(Operation.COMMENT.endpoint(), "POST", "/items/" + pair[1] + "/comment", pair[0],
+                body(Map.of("text", "Отзыв: " + pick(random, WorkingSet.WORDS) + " в порядке")));
+    }
+
+    private long readableItem(ThreadLocalRandom random) {
+        if (datasetItems > 0 && random.nextBoolean()) {
+            return 1 + random.nextInt(datasetItems);
+        }
+        return pick(random, set.items);
+    }
+
+    private String body(Map<String, Object> value) {
+        try {
+            return json.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> T pick(ThreadLocalRandom random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static <T> T pick(ThreadLocalRandom random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
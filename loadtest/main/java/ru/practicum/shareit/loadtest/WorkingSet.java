@@ -0,0 +1,163 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Данные, созданные через API перед прогоном: владельцы с вещами, арендаторы и пары
+ * «арендатор — вещь» с завершённым подтверждённым бронированием, по которым можно оставлять отзывы.
+ * Созданные в прогоне бронирования ждут решения владельца в очереди pending.
+ */
+@Slf4j
+class WorkingSet {
+    static final String[] WORDS = {
+        "дрель", "перфоратор", "стремянка", "палатка", "велосипед", "пила", "самокат", "проектор"
+    };
+    private static final String[] DETAILS = {
+        "ударная", "складная", "лёгкая", "туристическая", "с кейсом", "для дачи", "с зарядкой", "детский"
+    };
+    // Бронирование для отзывов начинается через столько секунд и длится столько же
+    private static final int PAST_BOOKING_SECONDS = 2;
+    private static final int PENDING_LIMIT = 100_000;
+    // Подготовка не должна упираться в пул соединений шлюза, поэтому запросы идут ограниченной пачкой
+    private static final int SETUP_PARALLELISM = 16;
+
+    final List<Long> owners = new ArrayList<>();
+    final List<Long> items = new ArrayList<>();
+    final List<Long> bookers = new ArrayList<>();
+    final List<long[]> commentable = new ArrayList<>();
+    private final Map<Long, Long> itemOwners = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<long[]> pending = new ConcurrentLinkedQueue<>();
+
+    private final GatewayClient client;
+    private final ObjectMapper json;
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final Semaphore setupPermits = new Semaphore(SETUP_PARALLELISM);
+
+    WorkingSet(GatewayClient client, ObjectMapper json) {
+        this.client = client;
+        this.json = json;
+    }
+
+    void create(int ownerCount, int itemsPerOwner, int bookerCount, int commentPairs)
+            throws InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            owners.addAll(all(executor, ownerCount, i -> createUser("owner" + i)));
+            bookers.addAll(all(executor, bookerCount, i -> createUser("booker" + i)));
+            for (Long owner : owners) {
+                List<Long> created = all(executor, itemsPerOwner, i -> createItem(owner));
+                created.forEach(item -> itemOwners.put(item, owner));
+                items.addAll(created);
+            }
+
+            // По одной паре на вещь, чтобы короткие бронирования не пересекались
+            int pairs = Math.min(commentPairs, Math.min(bookers.size(), items.size()));
+            List<long[]> booked = all(executor, pairs, i -> {
+                long booker = bookers.get(i);
+                long item = items.get(i);
+                LocalDateTime start = LocalDateTime.now().plusSeconds(PAST_BOOKING_SECONDS);
+                long booking = id(post("/bookings", booker, Map.of("itemId", item,
+                        "start", start, "end", start.plusSeconds(PAST_BOOKING_SECONDS))));
+                call(Call.send("setup", "PATCH", "/bookings/" + booking + "?approved=true", ownerOf(item), null));
+                return new long[]{booker, item};
+            });
+            commentable.addAll(booked);
+        }
+        // Отзыв принимается только после окончания бронирования
+        Thread.sleep((2L * PAST_BOOKING_SECONDS + 2) * 1000);
+        log.info("Рабочий набор {}: {} владельцев, {} вещей, {} арендаторов, {} пар для отзывов",
+                runId, owners.size(), items.size(), bookers.size(), commentable.size());
+    }
+
+    long ownerOf(long itemId) {
+        return itemOwners.get(itemId);
+    }
+
+    void addPending(long bookingId, long itemId) {
+        Long owner = itemOwners.get(itemId);
+        if (owner != null && pending.size() < PENDING_LIMIT) {
+            pending.add(new long[]{bookingId, owner});
+        }
+    }
+
+    long[] pollPending() {
+        return pending.poll();
+    }
+
+    private long createUser(String role) throws IOException, InterruptedException {
+        return id(post("/users", null, Map.of("name", role, "email", role + "-" + runId + "@loadtest.ru")));
+    }
+
+    private long createItem(long owner) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String word = WORDS[random.nextInt(WORDS.length)];
+        return id(post("/items", owner, Map.of(
+                "name", Character.toUpperCase(word.charAt(0)) + word.substring(1),
+                "description", word + " " + DETAILS[random.nextInt(DETAILS.length)],
+                "available", true)));
+    }
+
+    private JsonNode post(String path, Long userId, Map<String, Object> body) throws IOException, InterruptedException {
+        return call(Call.send("setup", "POST", path, userId, json.writeValueAsString(body)));
+    }
+
+    private JsonNode call(Call call) throws IOException, InterruptedException {
+        GatewayClient.Response response = client.send(call);
+        if (!response.isSuccess()) {
+            throw new IllegalStateException(call.method() + " " + call.path() + " -> " + response.status()
+                    + ": " + response.body());
+        }
+        return json.readTree(response.body());
+    }
+
+    private static long id(JsonNode node) {
+        return node.get("id").asLong();
+    }
+
+    private <T> List<T> all(ExecutorService executor, int count, IndexedTask<T> task)
+            throws InterruptedException {
+        List<Callable<T>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            tasks.add(() -> {
+                setupPermits.acquire();
+                try {
+                    return task.run(index);
+                } finally {
+                    setupPermits.release();
+                }
+            });
+        }
+        List<T> results = new ArrayList<>(count);
+        for (Future<T> future : executor.invokeAll(tasks)) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Не удалось создать рабочий набор", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask<T> {
+        T run(int index) throws IOException, InterruptedException;
+    }
+}
@@ -1,11 +1,14 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionsDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -31,25 +34,33 @@ public class BookingController {
         return bookingService.updateBookingStatus(bookingId, approved, userId);
     }
 
+    // Итоги в порядке решений в запросе; ошибки отдельных бронирований не отменяют остальные
+    @PatchMapping
+    public List<BookingDecisionResult> decideBookings(@Valid @RequestBody BookingDecisionsDto decisionsDto,
+                                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.decideBookings(decisionsDto.getDecisions(), userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@PathVariable Long bookingId,
                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
         return bookingService.getBookingById(bookingId, userId);
     }
 
+    // Следующая страница — по курсору из заголовка X-Next-Cursor
     @GetMapping
-    public List<BookingDto> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                            @RequestParam(defaultValue = "ALL") BookingState state,
-                                            @RequestParam(defaultValue = "0") int from,
-                                            @RequestParam(defaultValue = "10") int size) {
-        return bookingService.getUserBookings(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                            @RequestParam(defaultValue = "ALL") BookingState state,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "10") int size) {
+        return bookingService.getUserBookings(userId, state, cursor, size).toResponse();
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                             @RequestParam(defaultValue = "ALL") BookingState state,
-                                             @RequestParam(defaultValue = "0") int from,
-                                             @RequestParam(defaultValue = "10") int size) {
-        return bookingService.getOwnerBookings(ownerId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                             @RequestParam(defaultValue = "ALL") BookingState state,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "10") int size) {
+        return bookingService.getOwnerBookings(ownerId, state, cursor, size).toResponse();
     }
 }
\ No newline at end of file
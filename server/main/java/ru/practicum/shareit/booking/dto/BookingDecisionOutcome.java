@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.dto;
+
+// Исходы совпадают с ответами PATCH /bookings/{id}: 200, 404, 403 и 409
+public enum BookingDecisionOutcome {
+    APPROVED,
+    REJECTED,
+    NOT_FOUND,
+    NO_ACCESS,
+    ALREADY_DECIDED
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import ru.practicum.shareit.booking.BookingStatus;
+
+/**
+ * Итог решения по одному бронированию. status — статус после решения,
+ * для ALREADY_DECIDED — принятый ранее; чужим бронированиям и ненайденным он не сообщается.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookingDecisionResult(Long bookingId, BookingDecisionOutcome outcome, BookingStatus status) {
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.interval;
+
+import java.time.LocalDateTime;
+
+/**
+ * Полуоткрытый интервал [start, end) активного бронирования вещи.
+ */
+public record BookedInterval(LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,161 @@
+package ru.practicum.shareit.booking.interval;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exceptions.exception.ConflictException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Активные (WAITING/APPROVED) интервалы бронирований по вещам для проверки пересечений
+ * без запроса по диапазону. Вещь загружается из БД при первом обращении и перечитывается
+ * раз в {@code shareit.booking.interval-index.ttl}.
+ * Индекс не знает об отказах и решениях на других экземплярах, поэтому пересечение с прочитанным
+ * из БД интервалом — только повод перечитать вещь: конфликт объявляется, если он есть и в БД.
+ * Гарантию даёт ограничение excl_bookings_item_period в БД, индекс выстраивает в очередь
+ * одновременные попытки внутри процесса и отсекает свободные интервалы без запроса.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+    static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final long ttlNanos;
+    private final ConcurrentMap<Long, ItemIntervals> items = new ConcurrentHashMap<>();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.interval-index.ttl:PT5M}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Занимает интервал вещи или бросает {@link ConflictException}.
+     * Внутри транзакции занятие остаётся незафиксированным до коммита и снимается при откате.
+     */
+    public void reserve(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = items.computeIfAbsent(itemId, id -> new ItemIntervals());
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        intervals.lock.lock();
+        try {
+            boolean reloaded = refresh(itemId, intervals);
+            if (intervals.overlapsStored(start, end) && !reloaded) {
+                // Интервал мог освободиться на другом экземпляре
+                reload(itemId, intervals);
+            }
+            if (intervals.overlapsStored(start, end) || intervals.overlapsPending(start, end)) {
+                throw new ConflictException("Item is already booked for these dates");
+            }
+            if (inTransaction) {
+                intervals.addPending(start, end);
+            } else {
+                intervals.add(start, end);
+            }
+        } finally {
+            intervals.lock.unlock();
+        }
+
+        if (inTransaction) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    intervals.lock.lock();
+                    try {
+                        intervals.removePending(start, end);
+                        if (status == STATUS_COMMITTED) {
+                            intervals.add(start, end);
+                        }
+                    } finally {
+                        intervals.lock.unlock();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Свободные промежутки вещи в окне [from, to), по возрастанию.
+     */
+    public List<FreeSlot> freeSlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemIntervals intervals = items.computeIfAbsent(itemId, id -> new ItemIntervals());
+        intervals.lock.lock();
+        try {
+            refresh(itemId, intervals);
+            return intervals.gaps(from, to);
+        } finally {
+            intervals.lock.unlock();
+        }
+    }
+
+    /**
+     * Освобождает интервал после коммита текущей транзакции (или сразу, если её нет).
+     */
+    public void releaseAfterCommit(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = items.get(itemId);
+        if (intervals == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(intervals, start, end);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(intervals, start, end);
+            }
+        });
+    }
+
+    /**
+     * Сбрасывает вещь, если индекс разошёлся с БД; следующая проверка перечитает её.
+     */
+    public void invalidate(Long itemId) {
+        items.remove(itemId);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.interval-index.ttl:PT5M}")
+    public void evictExpired() {
+        long nowNanos = System.nanoTime();
+        int before = items.size();
+        items.values().removeIf(intervals -> intervals.isExpired(nowNanos, ttlNanos));
+        log.debug("Индекс интервалов: вытеснено вещей {}, осталось {}", before - items.size(), items.size());
+    }
+
+    // true, если вещь только что перечитана из БД
+    private boolean refresh(Long itemId, ItemIntervals intervals) {
+        if (intervals.isExpired(System.nanoTime(), ttlNanos)) {
+            reload(itemId, intervals);
+            return true;
+        }
+        intervals.prune(LocalDateTime.now());
+        return false;
+    }
+
+    private void reload(Long itemId, ItemIntervals intervals) {
+        long nowNanos = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        intervals.load(bookingRepository.findActiveIntervals(itemId, ACTIVE_STATUSES, now), nowNanos);
+        intervals.prune(now);
+    }
+
+    private static void release(ItemIntervals intervals, LocalDateTime start, LocalDateTime end) {
+        intervals.lock.lock();
+        try {
+            intervals.remove(start, end);
+        } finally {
+            intervals.lock.unlock();
+        }
+    }
+}
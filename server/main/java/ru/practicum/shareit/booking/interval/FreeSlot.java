@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.interval;
+
+import java.time.LocalDateTime;
+
+/**
+ * Свободный промежуток [start, end) между активными бронированиями вещи.
+ */
+public record FreeSlot(LocalDateTime start, LocalDateTime end) {
+}
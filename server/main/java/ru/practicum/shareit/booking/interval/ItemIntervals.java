@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking.interval;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Интервалы одной вещи: прочитанные из БД (непересекающиеся, упорядочены по началу) и занятые
+ * незафиксированными транзакциями этого процесса. Перечитывание из БД меняет только первые.
+ * Все методы, кроме {@link #isExpired}, вызываются под {@link #lock}.
+ */
+final class ItemIntervals {
+    // ReentrantLock, а не synchronized: под блокировкой бывает запрос к БД
+    final ReentrantLock lock = new ReentrantLock();
+
+    private final NavigableMap<LocalDateTime, LocalDateTime> byStart = new TreeMap<>();
+    private final List<BookedInterval> pending = new ArrayList<>();
+    private volatile long loadedAt;
+    private boolean loaded;
+
+    boolean isExpired(long nowNanos, long ttlNanos) {
+        return !loaded || nowNanos - loadedAt >= ttlNanos;
+    }
+
+    // intervals упорядочены по началу
+    void load(List<BookedInterval> intervals, long nowNanos) {
+        byStart.clear();
+        // Пересечения, оставшиеся с времён до ограничения в БД, склеиваем — проверка от этого только строже
+        LocalDateTime lastStart = null;
+        LocalDateTime lastEnd = null;
+        for (BookedInterval interval : intervals) {
+            if (lastEnd != null && interval.start().isBefore(lastEnd)) {
+                if (interval.end().isAfter(lastEnd)) {
+                    lastEnd = interval.end();
+                    byStart.put(lastStart, lastEnd);
+                }
+            } else {
+                lastStart = interval.start();
+                lastEnd = interval.end();
+                byStart.put(lastStart, lastEnd);
+            }
+        }
+        loadedAt = nowNanos;
+        loaded = true;
+    }
+
+    void prune(LocalDateTime now) {
+        // Интервалы не пересекаются, поэтому концы упорядочены так же, как начала
+        while (!byStart.isEmpty() && !byStart.firstEntry().getValue().isAfter(now)) {
+            byStart.pollFirstEntry();
+        }
+    }
+
+    // Достаточно одного соседа: последнего интервала, начавшегося до конца нового
+    boolean overlapsStored(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, LocalDateTime> before = byStart.lowerEntry(end);
+        return before != null && before.getValue().isAfter(start);
+    }
+
+    // Незафиксированных занятий на вещь единицы, поэтому перебор
+    boolean overlapsPending(LocalDateTime start, LocalDateTime end) {
+        return pending.stream().anyMatch(interval -> interval.start().isBefore(end) && interval.end().isAfter(start));
+    }
+
+    // Обходим только интервалы, начавшиеся в окне, плюс один слева
+    List<FreeSlot> gaps(LocalDateTime from, LocalDateTime to) {
+        List<FreeSlot> gaps = new ArrayList<>();
+        LocalDateTime cursor = from;
+        Map.Entry<LocalDateTime, LocalDateTime> before = byStart.lowerEntry(from);
+        if (before != null && before.getValue().isAfter(cursor)) {
+            cursor = before.getValue();
+        }
+        for (Map.Entry<LocalDateTime, LocalDateTime> booked : byStart.subMap(from, true, to, false).entrySet()) {
+            if (booked.getKey().isAfter(cursor)) {
+                gaps.add(new FreeSlot(cursor, booked.getKey()));
+            }
+            if (booked.getValue().isAfter(cursor)) {
+                cursor = booked.getValue();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            gaps.add(new FreeSlot(cursor, to));
+        }
+        return gaps;
+    }
+
+    void add(LocalDateTime start, LocalDateTime end) {
+        byStart.put(start, end);
+    }
+
+    void addPending(LocalDateTime start, LocalDateTime end) {
+        pending.add(new BookedInterval(start, end));
+    }
+
+    void removePending(LocalDateTime start, LocalDateTime end) {
+        pending.remove(new BookedInterval(start, end));
+    }
+
+    void remove(LocalDateTime start, LocalDateTime end) {
+        byStart.remove(start, end);
+    }
+}
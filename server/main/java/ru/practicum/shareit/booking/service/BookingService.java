@@ -1,8 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.pagination.KeysetPage;
 
 import java.util.List;
 
@@ -11,9 +14,11 @@ public interface BookingService {
 
     BookingDto updateBookingStatus(Long bookingId, Boolean approved, Long userId);
 
+    List<BookingDecisionResult> decideBookings(List<BookingDecisionDto> decisions, Long userId);
+
     BookingDto getBookingById(Long bookingId, Long userId);
 
-    List<BookingDto> getUserBookings(Long userId, BookingState state, int from, int size);
+    KeysetPage<BookingDto> getUserBookings(Long userId, BookingState state, String cursor, int size);
 
-    List<BookingDto> getOwnerBookings(Long ownerId, BookingState state, int from, int size);
+    KeysetPage<BookingDto> getOwnerBookings(Long ownerId, BookingState state, String cursor, int size);
 }
\ No newline at end of file
@@ -1,17 +1,22 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRole;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
+import ru.practicum.shareit.booking.storage.BookingDecisionTarget;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exceptions.exception.NoAccessException;
 import ru.practicum.shareit.exceptions.exception.NotFoundException;
@@ -19,20 +24,34 @@ import ru.practicum.shareit.exceptions.exception.ConflictException;
 
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.timeline.ItemTimelineService;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    // exclusion_violation: сработало ограничение excl_bookings_item_period
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemService itemService;
+    private final ItemTimelineService timelineService;
+    private final BookingIntervalIndex intervalIndex;
 
     @Override
     @Transactional
@@ -50,6 +69,8 @@ public class BookingServiceImpl implements BookingService {
             throw new IllegalArgumentException("Invalid booking dates");
         }
 
+        intervalIndex.reserve(item.getId(), bookingDto.getStart(), bookingDto.getEnd());
+
         Booking booking = Booking.builder()
                 .start(bookingDto.getStart())
                 .end(bookingDto.getEnd())
@@ -58,7 +79,17 @@ public class BookingServiceImpl implements BookingService {
                 .status(BookingStatus.WAITING)
                 .build();
 
-        Booking savedBooking = bookingRepository.save(booking);
+        Booking savedBooking;
+        try {
+            savedBooking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlap(e)) {
+                throw e;
+            }
+            // Пересечение создано мимо индекса (другой экземпляр или прямая запись в БД)
+            intervalIndex.invalidate(item.getId());
+            throw new ConflictException("Item is already booked for these dates");
+        }
         return BookingMapper.toBookingDto(savedBooking);
     }
 
@@ -77,10 +108,74 @@ public class BookingServiceImpl implements BookingService {
         }
 
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        Booking updatedBooking = bookingRepository.save(booking);
+        Booking updatedBooking = bookingRepository.saveAndFlush(booking);
+        if (approved) {
+            timelineService.refreshTimeline(booking.getItem().getId());
+        } else {
+            intervalIndex.releaseAfterCommit(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+        }
         return BookingMapper.toBookingDto(updatedBooking);
     }
 
+    // Пакет решений владельца: владелец и статусы проверяются одним запросом, статусы меняются одним UPDATE,
+    // item_timelines пересчитываются один раз на вещь
+    @Override
+    @Transactional
+    public List<BookingDecisionResult> decideBookings(List<BookingDecisionDto> decisions, Long userId) {
+        Map<Long, Boolean> approvedById = new LinkedHashMap<>();
+        for (BookingDecisionDto decision : decisions) {
+            if (approvedById.put(decision.getBookingId(), decision.getApproved()) != null) {
+                throw new IllegalArgumentException("Duplicate decision for booking " + decision.getBookingId());
+            }
+        }
+
+        Map<Long, BookingDecisionTarget> targets = byId(
+                bookingRepository.findDecisionTargetsForUpdate(approvedById.keySet()));
+        List<Long> waitingIds = new ArrayList<>();
+        List<Long> approvedIds = new ArrayList<>();
+        approvedById.forEach((id, approved) -> {
+            BookingDecisionTarget target = targets.get(id);
+            if (target != null && target.ownerId().equals(userId) && target.status() == BookingStatus.WAITING) {
+                waitingIds.add(id);
+                if (approved) {
+                    approvedIds.add(id);
+                }
+            }
+        });
+
+        // Строки заблокированы при чтении, поэтому UPDATE меняет ровно бронирования из waitingIds;
+        // решённые параллельно до блокировки уже прочитаны с итоговым статусом и получат ALREADY_DECIDED
+        Map<Long, BookingStatus> applied = new HashMap<>();
+        if (!waitingIds.isEmpty()) {
+            int updated = bookingRepository.applyDecisions(waitingIds, approvedIds,
+                    BookingStatus.APPROVED, BookingStatus.REJECTED, BookingStatus.WAITING);
+            if (updated != waitingIds.size()) {
+                throw new IllegalStateException("Expected " + waitingIds.size() + " locked bookings to be decided, "
+                        + "updated " + updated);
+            }
+            waitingIds.forEach(id -> applied.put(id, decidedStatus(approvedById.get(id))));
+        }
+
+        List<Long> approvedItemIds = applied.entrySet().stream()
+                .filter(entry -> entry.getValue() == BookingStatus.APPROVED)
+                .map(entry -> targets.get(entry.getKey()).itemId())
+                .distinct()
+                .toList();
+        if (!approvedItemIds.isEmpty()) {
+            timelineService.refreshTimelines(approvedItemIds);
+        }
+        applied.forEach((id, status) -> {
+            if (status == BookingStatus.REJECTED) {
+                BookingDecisionTarget target = targets.get(id);
+                intervalIndex.releaseAfterCommit(target.itemId(), target.start(), target.end());
+            }
+        });
+
+        return approvedById.keySet().stream()
+                .map(id -> decisionResult(id, targets.get(id), applied.get(id), userId))
+                .toList();
+    }
+
     @Override
     public BookingDto getBookingById(Long bookingId, Long userId) {
         Booking booking = bookingRepository.findById(bookingId)
@@ -95,66 +190,54 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getUserBookings(Long userId, BookingState state, int from, int size) {
-        userService.getUserById(userId);
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start").descending());
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> bookings;
-        switch (state) {
-            case CURRENT:
-                bookings = bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                        userId, now, now, pageable);
-                break;
-            case PAST:
-                bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(userId, now, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(userId, now, pageable);
-                break;
-            case WAITING:
-            case REJECTED:
-                BookingStatus status = BookingStatus.valueOf(state.name());
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, status, pageable);
-                break;
-            default: // ALL
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId, pageable);
+    public KeysetPage<BookingDto> getUserBookings(Long userId, BookingState state, String cursor, int size) {
+        userService.validateUserExists(userId);
+        return findBookingPage(BookingRole.BOOKER, userId, state, cursor, size);
+    }
+
+    @Override
+    public KeysetPage<BookingDto> getOwnerBookings(Long ownerId, BookingState state, String cursor, int size) {
+        userService.validateUserExists(ownerId);
+        return findBookingPage(BookingRole.OWNER, ownerId, state, cursor, size);
+    }
+
+    private KeysetPage<BookingDto> findBookingPage(BookingRole role, Long userId, BookingState state,
+                                                   String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
         }
+        KeysetCursor position = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        return bookingRepository.findBookingPage(role, userId, state, position, size, LocalDateTime.now());
+    }
 
-        return bookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+    private static BookingStatus decidedStatus(boolean approved) {
+        return approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
     }
 
-    @Override
-    public List<BookingDto> getOwnerBookings(Long ownerId, BookingState state, int from, int size) {
-        userService.getUserById(ownerId);
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start").descending());
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> bookings;
-        switch (state) {
-            case CURRENT:
-                bookings = bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                        ownerId, now, now, pageable);
-                break;
-            case PAST:
-                bookings = bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(ownerId, now, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(ownerId, now, pageable);
-                break;
-            case WAITING:
-            case REJECTED:
-                BookingStatus status = BookingStatus.valueOf(state.name());
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(ownerId, status, pageable);
-                break;
-            default: // ALL
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(ownerId, pageable);
+    // Те же проверки и в том же порядке, что и в updateBookingStatus
+    private static BookingDecisionResult decisionResult(Long id, BookingDecisionTarget target, BookingStatus applied,
+                                                        Long userId) {
+        if (target == null) {
+            return new BookingDecisionResult(id, BookingDecisionOutcome.NOT_FOUND, null);
+        }
+        if (!target.ownerId().equals(userId)) {
+            return new BookingDecisionResult(id, BookingDecisionOutcome.NO_ACCESS, null);
+        }
+        if (applied == null) {
+            return new BookingDecisionResult(id, BookingDecisionOutcome.ALREADY_DECIDED, target.status());
         }
+        BookingDecisionOutcome outcome = applied == BookingStatus.APPROVED
+                ? BookingDecisionOutcome.APPROVED
+                : BookingDecisionOutcome.REJECTED;
+        return new BookingDecisionResult(id, outcome, applied);
+    }
+
+    private static Map<Long, BookingDecisionTarget> byId(List<BookingDecisionTarget> targets) {
+        return targets.stream().collect(Collectors.toMap(BookingDecisionTarget::id, Function.identity()));
+    }
 
-        return bookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+    private static boolean isOverlap(DataIntegrityViolationException e) {
+        return NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sqlException
+                && EXCLUSION_VIOLATION.equals(sqlException.getSQLState());
     }
 }
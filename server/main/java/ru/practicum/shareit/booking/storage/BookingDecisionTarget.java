@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+// Всё, что нужно для решения по бронированию, без загрузки бронирования, вещи и владельца
+public record BookingDecisionTarget(Long id, Long itemId, Long ownerId, BookingStatus status,
+                                    LocalDateTime start, LocalDateTime end) {
+}
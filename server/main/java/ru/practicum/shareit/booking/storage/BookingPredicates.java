@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.storage;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.QBooking;
+import ru.practicum.shareit.item.model.QItem;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Условия выборки бронирований: роль пользователя × состояние × позиция курсора.
+ */
+@UtilityClass
+public class BookingPredicates {
+    private static final QBooking booking = QBooking.booking;
+
+    // item — уже присоединённая к запросу вещь: путь booking.item.owner добавил бы к ней второй join
+    public static BooleanExpression forRole(BookingRole role, Long userId, QItem item) {
+        return switch (role) {
+            case BOOKER -> booking.booker.id.eq(userId);
+            case OWNER -> item.owner.id.eq(userId);
+        };
+    }
+
+    // null для ALL — Querydsl пропускает null-условия в where
+    public static BooleanExpression forState(BookingState state, LocalDateTime now) {
+        return switch (state) {
+            case CURRENT -> booking.start.before(now).and(booking.end.after(now));
+            case PAST -> booking.end.before(now);
+            case FUTURE -> booking.start.after(now);
+            case WAITING -> booking.status.eq(BookingStatus.WAITING);
+            case REJECTED -> booking.status.eq(BookingStatus.REJECTED);
+            case ALL -> null;
+        };
+    }
+
+    // Строго после курсора в порядке (start DESC, id DESC)
+    public static BooleanExpression after(KeysetCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return booking.start.lt(cursor.start())
+                .or(booking.start.eq(cursor.start()).and(booking.id.lt(cursor.id())));
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
+
+import java.time.LocalDateTime;
+
+public interface BookingQueryRepository {
+    KeysetPage<BookingDto> findBookingPage(BookingRole role, Long userId, BookingState state,
+                                           KeysetCursor cursor, int size, LocalDateTime now);
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking.storage;
+
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.QBooking;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.model.QItem;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.user.QUser;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+    private final JPAQueryFactory queryFactory;
+
+    // Один запрос на страницу: бронирование, имя арендатора и название вещи сразу в BookingDto
+    @Override
+    public KeysetPage<BookingDto> findBookingPage(BookingRole role, Long userId, BookingState state,
+                                                  KeysetCursor cursor, int size, LocalDateTime now) {
+        QBooking booking = QBooking.booking;
+        QUser booker = QUser.user;
+        QItem item = QItem.item;
+
+        List<BookingDto> rows = queryFactory
+                .select(Projections.constructor(BookingDto.class,
+                        booking.id,
+                        booking.start,
+                        booking.end,
+                        booking.status,
+                        Projections.constructor(BookingDto.Booker.class, booker.id, booker.name),
+                        Projections.constructor(BookingDto.Item.class, item.id, item.name)))
+                .from(booking)
+                .join(booking.booker, booker)
+                .join(booking.item, item)
+                .where(BookingPredicates.forRole(role, userId, item),
+                        BookingPredicates.forState(state, now),
+                        BookingPredicates.after(cursor))
+                .orderBy(booking.start.desc(), booking.id.desc())
+                .limit(size + 1L)
+                .fetch();
+
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<BookingDto> content = rows.subList(0, size);
+        BookingDto last = content.get(size - 1);
+        return new KeysetPage<>(List.copyOf(content), new KeysetCursor(last.getStart(), last.getId()).encode());
+    }
+}
@@ -1,73 +1,90 @@
 package ru.practicum.shareit.booking.storage;
 
 
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.interval.BookedInterval;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime start, Pageable pageable);
-
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime start, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status, Pageable pageable);
-
-    Optional<Booking> findFirstByItemIdAndStartBeforeAndStatusOrderByStartDesc(
-            Long itemId, LocalDateTime date, BookingStatus status);
-
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
+    boolean existsByBookerIdAndItemIdAndEndBeforeAndStatus(
+            Long bookerId, Long itemId, LocalDateTime end, BookingStatus status);
 
-    Optional<Booking> findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
-            Long itemId, LocalDateTime date, BookingStatus status);
+    // Незавершённые бронирования вещи для BookingIntervalIndex, по индексу idx_bookings_item_status_start
+    @Query("""
+        SELECT new ru.practicum.shareit.booking.interval.BookedInterval(b.start, b.end) FROM Booking b
+        WHERE b.item.id = :itemId AND b.status IN :statuses AND b.end > :now
+        ORDER BY b.start
+        """)
+    List<BookedInterval> findActiveIntervals(@Param("itemId") Long itemId,
+                                             @Param("statuses") List<BookingStatus> statuses,
+                                             @Param("now") LocalDateTime now);
 
 
-    boolean existsByBookerIdAndItemIdAndEndBeforeAndStatus(
-            Long bookerId, Long itemId, LocalDateTime end, BookingStatus status);
+    // Владелец и статус бронирований из пакета решений одним запросом. Строки блокируются до конца транзакции
+    // по возрастанию id: прочитанный статус WAITING не изменит параллельное решение до applyDecisions
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT new ru.practicum.shareit.booking.storage.BookingDecisionTarget(b.id, i.id, i.owner.id, b.status,
+            b.start, b.end)
+        FROM Booking b JOIN b.item i
+        WHERE b.id IN :ids
+        ORDER BY b.id
+        """)
+    List<BookingDecisionTarget> findDecisionTargetsForUpdate(@Param("ids") Collection<Long> ids);
 
+    // Все решения пакета одним UPDATE по строкам, заблокированным findDecisionTargetsForUpdate
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE Booking b
+        SET b.status = CASE WHEN b.id IN :approvedIds THEN :approved ELSE :rejected END
+        WHERE b.id IN :ids AND b.status = :waiting
+        """)
+    int applyDecisions(@Param("ids") Collection<Long> ids,
+                       @Param("approvedIds") Collection<Long> approvedIds,
+                       @Param("approved") BookingStatus approved,
+                       @Param("rejected") BookingStatus rejected,
+                       @Param("waiting") BookingStatus waiting);
 
+    // Вещи из списка, занятые подтверждёнными бронированиями в [start, end)
     @Query("""
-        SELECT b FROM Booking b WHERE b.item.id IN :itemIds
-        AND b.start < :now AND b.status = :status
-        AND b.id IN (SELECT MAX(b2.id) FROM Booking b2 WHERE b2.item.id = b.item.id
-        AND b2.start < :now AND b2.status = :status GROUP BY b2.item.id)
+        SELECT DISTINCT b.item.id FROM Booking b
+        WHERE b.item.id IN :itemIds AND b.status = :status AND b.start < :end AND b.end > :start
         """)
+    List<Long> findItemIdsBookedBetween(@Param("itemIds") List<Long> itemIds,
+                                        @Param("start") LocalDateTime start,
+                                        @Param("end") LocalDateTime end,
+                                        @Param("status") BookingStatus status);
+
+    // Одна строка на вещь: последнее/ближайшее по дате начала, а не по id.
+    // Обслуживается индексом idx_bookings_item_status_start
+    @Query(value = """
+        SELECT DISTINCT ON (b.item_id) b.* FROM bookings b
+        WHERE b.item_id IN (:itemIds) AND b.status = :#{#status.name()} AND b.start_date < :now
+        ORDER BY b.item_id, b.start_date DESC, b.id DESC
+        """, nativeQuery = true)
     List<Booking> findLastBookingsForItems(@Param("itemIds") List<Long> itemIds,
                                            @Param("now") LocalDateTime now,
                                            @Param("status") BookingStatus status);
 
-
-    @Query("""
-        SELECT b FROM Booking b WHERE b.item.id IN :itemIds
-        AND b.start > :now AND b.status = :status
-        AND b.id IN (SELECT MIN(b2.id) FROM Booking b2 WHERE b2.item.id = b.item.id
-        AND b2.start > :now AND b.status = :status GROUP BY b2.item.id)""")
+    @Query(value = """
+        SELECT DISTINCT ON (b.item_id) b.* FROM bookings b
+        WHERE b.item_id IN (:itemIds) AND b.status = :#{#status.name()} AND b.start_date > :now
+        ORDER BY b.item_id, b.start_date ASC, b.id ASC
+        """, nativeQuery = true)
     List<Booking> findNextBookingsForItems(@Param("itemIds") List<Long> itemIds,
                                            @Param("now") LocalDateTime now,
                                            @Param("status") BookingStatus status);
-
-
 }
@@ -1,20 +1,35 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.item.bulk.BulkImportSummary;
+import ru.practicum.shareit.item.bulk.BulkItemFormat;
+import ru.practicum.shareit.item.bulk.BulkItemResult;
+import ru.practicum.shareit.item.bulk.ItemBulkImporter;
 import ru.practicum.shareit.item.comments.CommentDto;
 import ru.practicum.shareit.item.comments.CreateCommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.NewItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.matching.RequestMatchDto;
 
-
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,6 +39,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final ItemBulkImporter bulkImporter;
+    private final ObjectMapper objectMapper;
 
 
     @GetMapping("/{itemId}")
@@ -32,6 +49,22 @@ public class ItemController {
         return itemService.getItemById(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable Long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
+    // Открытые запросы, которым может подойти вещь; только для владельца
+    @GetMapping("/{itemId}/request-matches")
+    public List<RequestMatchDto> getRequestMatches(@PathVariable Long itemId,
+                                                   @RequestHeader(value = "X-Sharer-User-Id") Long userId) {
+        return itemService.getRequestMatches(itemId, userId);
+    }
+
     @GetMapping
     public List<ItemDto> getItemsByOwner(@RequestHeader(value = "X-Sharer-User-Id") Long ownerId) {
         return itemService.getItemsByOwnerId(ownerId);
@@ -54,6 +87,29 @@ public class ItemController {
         return ItemMapper.toItemDto(createdItem);
     }
 
+    // Построчные итоги пишутся в ответ по мере сохранения пачек, последней строкой — BulkImportSummary
+    @PostMapping(value = "/bulk", consumes = {BulkItemFormat.NDJSON_VALUE, BulkItemFormat.CSV_VALUE})
+    public void createItems(@RequestHeader(value = "X-Sharer-User-Id") Long ownerId,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        BulkItemFormat format = BulkItemFormat.of(MediaType.parseMediaType(request.getContentType()));
+        OutputStream out = response.getOutputStream();
+        BulkImportSummary summary = bulkImporter.importItems(ownerId, format, request.getInputStream(), results -> {
+            response.setContentType(BulkItemFormat.NDJSON_VALUE);
+            try {
+                for (BulkItemResult result : results) {
+                    writeLine(out, result);
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        response.setContentType(BulkItemFormat.NDJSON_VALUE);
+        writeLine(out, summary);
+        out.flush();
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@PathVariable Long itemId,
                               @RequestBody UpdateItemDto itemDto,
@@ -63,9 +119,26 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestParam String text) {
-        return itemService.searchItems(text).stream()
+    public List<ItemDto> searchItems(@RequestParam String text,
+                                     @RequestParam(defaultValue = "0") int from,
+                                     @RequestParam(defaultValue = "10") int size,
+                                     @RequestParam(required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                     @RequestParam(required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        if ((start == null) != (end == null)) {
+            throw new IllegalArgumentException("Parameters 'start' and 'end' must be given together");
+        }
+        List<Item> found = start == null
+                ? itemService.searchItems(text, from, size)
+                : itemService.searchItemsFreeBetween(text, start, end, from, size);
+        return found.stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.bulk;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Построчное чтение тела загрузки. Строка длиннее maxLength не собирается в памяти целиком:
+ * остаток пропускается до перевода строки, а строка помечается как обрезанная.
+ */
+class BoundedLineReader {
+    private final Reader reader;
+    private final int maxLength;
+    private final StringBuilder line = new StringBuilder();
+    private boolean truncated;
+
+    BoundedLineReader(Reader reader, int maxLength) {
+        this.reader = reader;
+        this.maxLength = maxLength;
+    }
+
+    // null — тело закончилось
+    String readLine() throws IOException {
+        line.setLength(0);
+        truncated = false;
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1 && c != '\n') {
+            if (c != '\r') {
+                if (line.length() < maxLength) {
+                    line.append((char) c);
+                } else {
+                    truncated = true;
+                }
+            }
+            c = reader.read();
+        }
+        return line.toString();
+    }
+
+    boolean isTruncated() {
+        return truncated;
+    }
+}
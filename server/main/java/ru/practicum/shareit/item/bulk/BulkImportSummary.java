@@ -0,0 +1,5 @@
+package ru.practicum.shareit.item.bulk;
+
+// Последняя строка ответа: по ней клиент отличает завершённую загрузку от оборванной
+public record BulkImportSummary(long created, long failed) {
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.bulk;
+
+import org.springframework.http.MediaType;
+
+public enum BulkItemFormat {
+    // Один объект NewItemDto на строку
+    NDJSON,
+    // Первая строка — заголовок с колонками name, description, available и необязательной requestId
+    CSV;
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String CSV_VALUE = "text/csv";
+
+    public static BulkItemFormat of(MediaType contentType) {
+        if (contentType != null && contentType.isCompatibleWith(MediaType.parseMediaType(CSV_VALUE))) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+}
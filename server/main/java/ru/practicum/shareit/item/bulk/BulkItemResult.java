@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Итог одной строки загрузки: id созданной вещи либо причина отказа.
+ * Номер строки считается от начала тела запроса, для CSV заголовок — строка 1.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkItemResult(long line, Long id, String error) {
+
+    public static BulkItemResult created(long line, Long id) {
+        return new BulkItemResult(line, id, null);
+    }
+
+    public static BulkItemResult failed(long line, String error) {
+        return new BulkItemResult(line, null, error);
+    }
+}
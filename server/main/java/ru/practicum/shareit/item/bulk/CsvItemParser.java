@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item.bulk;
+
+import ru.practicum.shareit.item.dto.NewItemDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Разбор CSV по RFC 4180 в пределах одной строки: поля в кавычках могут содержать запятые и "",
+ * но не переводы строки. Порядок колонок задаёт заголовок.
+ */
+class CsvItemParser {
+    private static final List<String> COLUMNS = List.of("name", "description", "available", "requestid");
+    private static final List<String> REQUIRED = List.of("name", "description", "available");
+
+    private final int width;
+    // Позиция колонки из COLUMNS в строке или -1, если её нет в заголовке
+    private final int[] positions = new int[COLUMNS.size()];
+
+    CsvItemParser(String header) {
+        if (header == null || header.isBlank()) {
+            throw new IllegalArgumentException("CSV upload must start with a header line");
+        }
+        List<String> names = split(header);
+        width = names.size();
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase(Locale.ROOT);
+            int column = COLUMNS.indexOf(name);
+            if (column == -1) {
+                throw new IllegalArgumentException("Unknown CSV column: " + names.get(i));
+            }
+            if (positions[column] != -1) {
+                throw new IllegalArgumentException("Duplicate CSV column: " + names.get(i));
+            }
+            positions[column] = i;
+        }
+        for (String required : REQUIRED) {
+            if (positions[COLUMNS.indexOf(required)] == -1) {
+                throw new IllegalArgumentException("Missing CSV column: " + required);
+            }
+        }
+    }
+
+    NewItemDto parse(String line) {
+        List<String> fields = split(line);
+        if (fields.size() != width) {
+            throw new IllegalArgumentException("Expected " + width + " fields, got " + fields.size());
+        }
+        return NewItemDto.builder()
+                .name(field(fields, 0))
+                .description(field(fields, 1))
+                .available(parseBoolean(field(fields, 2)))
+                .requestId(parseLong(field(fields, 3)))
+                .build();
+    }
+
+    private String field(List<String> fields, int column) {
+        return positions[column] == -1 ? null : fields.get(positions[column]);
+    }
+
+    // Пустое поле — null, чтобы сработали те же ограничения, что и для отсутствующего поля в JSON
+    private static Boolean parseBoolean(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException("Field 'available' must be true or false: " + value);
+        };
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Field 'requestId' must be a number: " + value);
+        }
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
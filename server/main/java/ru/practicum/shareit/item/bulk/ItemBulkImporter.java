@@ -0,0 +1,219 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.NewItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.matching.RequestMatcher;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Пакетная загрузка вещей одного владельца из NDJSON или CSV.
+ * Тело читается построчно, в памяти держится только текущая пачка из batch-size строк:
+ * каждая пачка сохраняется отдельной транзакцией, после чего её итоги сразу уходят в sink.
+ * Ошибка в строке не прерывает загрузку — строка попадает в ответ с причиной отказа.
+ * Перед сохранением пачка ждёт места в очереди подбора запросов, чтобы загрузка шла со скоростью подбора.
+ */
+@Slf4j
+@Component
+public class ItemBulkImporter {
+    // BoundedLineReader читает по символу, поэтому декодер читает тело крупными порциями
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final ItemService itemService;
+    private final UserService userService;
+    private final Validator validator;
+    private final ObjectReader itemReader;
+    private final EntityManager entityManager;
+    private final RequestMatcher requestMatcher;
+    private final int batchSize;
+    private final int maxLineLength;
+    private final Duration matchingWait;
+
+    public ItemBulkImporter(ItemService itemService,
+                            UserService userService,
+                            Validator validator,
+                            ObjectMapper objectMapper,
+                            EntityManager entityManager,
+                            RequestMatcher requestMatcher,
+                            @Value("${shareit.items.bulk.batch-size:1000}") int batchSize,
+                            @Value("${shareit.items.bulk.max-line-length:4096}") int maxLineLength,
+                            @Value("${shareit.items.bulk.matching-wait:PT30S}") Duration matchingWait) {
+        this.itemService = itemService;
+        this.userService = userService;
+        this.validator = validator;
+        this.itemReader = objectMapper.readerFor(NewItemDto.class);
+        this.entityManager = entityManager;
+        this.requestMatcher = requestMatcher;
+        this.batchSize = batchSize;
+        this.maxLineLength = maxLineLength;
+        this.matchingWait = matchingWait;
+    }
+
+    public BulkImportSummary importItems(Long ownerId, BulkItemFormat format, InputStream body,
+                                         Consumer<List<BulkItemResult>> sink) throws IOException {
+        userService.validateUserExists(ownerId);
+
+        Reader decoder = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+        BoundedLineReader reader = new BoundedLineReader(decoder, maxLineLength);
+        long lineNumber = 0;
+        CsvItemParser csv = null;
+        if (format == BulkItemFormat.CSV) {
+            csv = new CsvItemParser(reader.readLine());
+            lineNumber++;
+        }
+
+        Batch batch = new Batch(ownerId, sink);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (reader.isTruncated()) {
+                batch.reject(lineNumber, "Line is longer than " + maxLineLength + " characters");
+            } else {
+                parse(batch, lineNumber, line, csv);
+            }
+            if (batch.size() >= batchSize) {
+                batch.flush();
+            }
+        }
+        batch.flush();
+        return new BulkImportSummary(batch.created, batch.failed);
+    }
+
+    private void parse(Batch batch, long lineNumber, String line, CsvItemParser csv) {
+        NewItemDto dto;
+        try {
+            dto = csv != null ? csv.parse(line) : itemReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            batch.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            return;
+        } catch (IllegalArgumentException e) {
+            batch.reject(lineNumber, e.getMessage());
+            return;
+        }
+        if (dto == null) {
+            batch.reject(lineNumber, "Expected an item object");
+            return;
+        }
+
+        Set<ConstraintViolation<NewItemDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            batch.reject(lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return;
+        }
+        // id назначает сервер: заданный клиентом id превратил бы вставку в merge
+        dto.setId(null);
+        batch.add(lineNumber, ItemMapper.toItem(dto, null));
+    }
+
+    /**
+     * Строки текущей пачки в порядке чтения: отклонённые сразу с ошибкой, остальные ждут сохранения.
+     */
+    private final class Batch {
+        private final Long ownerId;
+        private final Consumer<List<BulkItemResult>> sink;
+        private final List<Long> lines = new ArrayList<>();
+        // Вещь строки или null, если строка уже отклонена
+        private final List<Item> items = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+        private long created;
+        private long failed;
+
+        Batch(Long ownerId, Consumer<List<BulkItemResult>> sink) {
+            this.ownerId = ownerId;
+            this.sink = sink;
+        }
+
+        int size() {
+            return lines.size();
+        }
+
+        void add(long line, Item item) {
+            lines.add(line);
+            items.add(item);
+            errors.add(null);
+        }
+
+        void reject(long line, String error) {
+            lines.add(line);
+            items.add(null);
+            errors.add(error);
+        }
+
+        void flush() {
+            if (lines.isEmpty()) {
+                return;
+            }
+            List<Item> valid = items.stream().filter(item -> item != null).toList();
+            String batchError = null;
+            if (!valid.isEmpty()) {
+                awaitMatching(valid);
+                try {
+                    itemService.createItems(valid, ownerId);
+                } catch (RuntimeException e) {
+                    log.warn("Пачка из {} вещей владельца {} не сохранена", valid.size(), ownerId, e);
+                    batchError = "Batch was not saved: " + e.getMessage();
+                } finally {
+                    // При открытом EntityManager запроса (open-in-view) вещи копились бы в нём до конца загрузки
+                    entityManager.clear();
+                }
+            }
+
+            List<BulkItemResult> results = new ArrayList<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                Item item = items.get(i);
+                String error = item == null ? errors.get(i) : batchError;
+                if (error != null) {
+                    results.add(BulkItemResult.failed(lines.get(i), error));
+                    failed++;
+                } else {
+                    results.add(BulkItemResult.created(lines.get(i), item.getId()));
+                    created++;
+                }
+            }
+            lines.clear();
+            items.clear();
+            errors.clear();
+            sink.accept(results);
+        }
+
+        // Подбор получают только доступные вещи без requestId — под них и ждём места в очереди
+        private void awaitMatching(List<Item> valid) {
+            int matched = (int) valid.stream()
+                    .filter(item -> item.getRequestId() == null && Boolean.TRUE.equals(item.getAvailable()))
+                    .count();
+            if (!requestMatcher.awaitCapacity(matched, matchingWait)) {
+                log.warn("Очередь подбора не освободилась за {}, часть вещей владельца {} останется без подсказок",
+                        matchingWait, ownerId);
+            }
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package ru.practicum.shareit.item.comments;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,5 +12,15 @@ import java.util.List;
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItemIdOrderByCreatedDesc(Long itemId);
 
+    // Автор подтягивается в том же запросе, без ленивой загрузки на каждый комментарий
+    @Query("""
+            SELECT new ru.practicum.shareit.item.comments.CommentDto(c.id, c.text, a.name, c.created)
+            FROM Comment c JOIN c.author a
+            WHERE c.item.id = :itemId
+            ORDER BY c.created DESC
+            """)
+    List<CommentDto> findCommentDtosByItemId(@Param("itemId") Long itemId);
+
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItemIdInOrderByCreatedDesc(List<Long> itemIds);
 }
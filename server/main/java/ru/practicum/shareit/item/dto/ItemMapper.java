@@ -11,32 +11,37 @@ import java.util.List;
 
 public class ItemMapper {
     public static ItemDto toItemDto(Item item, Booking lastBooking, Booking nextBooking, List<CommentDto> comments) {
+        return toItemDto(item, toBookingInfo(lastBooking), toBookingInfo(nextBooking), comments);
+    }
+
+    public static ItemDto toItemDto(Item item, ItemDto.BookingInfo lastBooking, ItemDto.BookingInfo nextBooking,
+                                    List<CommentDto> comments) {
         return ItemDto.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .requestId(item.getRequestId())
-                .lastBooking(lastBooking != null ?
-                        ItemDto.BookingInfo.builder()
-                                .id(lastBooking.getId())
-                                .bookerId(lastBooking.getBooker().getId())
-                                .start(lastBooking.getStart())
-                                .end(lastBooking.getEnd())
-                                .build() : null)
-                .nextBooking(nextBooking != null ?
-                        ItemDto.BookingInfo.builder()
-                                .id(nextBooking.getId())
-                                .bookerId(nextBooking.getBooker().getId())
-                                .start(nextBooking.getStart())
-                                .end(nextBooking.getEnd())
-                                .build() : null)
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking)
                 .comments(comments)
                 .build();
     }
 
+    public static ItemDto.BookingInfo toBookingInfo(Booking booking) {
+        if (booking == null) {
+            return null;
+        }
+        return ItemDto.BookingInfo.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBooker().getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+    }
+
     public static ItemDto toItemDto(Item item, List<CommentDto> comments) {
-        return toItemDto(item, null, null, comments);
+        return toItemDto(item, (ItemDto.BookingInfo) null, null, comments);
     }
 
     // Остальные методы остаются без изменений
@@ -2,9 +2,11 @@ package ru.practicum.shareit.item.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
+// Ограничения совпадают с NewItemRequest гейтвея: строки пакетной загрузки проверяются только здесь
 @Getter
 @Setter
 @FieldDefaults(level = AccessLevel.PRIVATE)
@@ -12,11 +14,13 @@ import lombok.experimental.FieldDefaults;
 @AllArgsConstructor
 public class NewItemDto {
     private Long id;
-    @NotBlank
+    @NotBlank(message = "Название вещи не должно быть пустым")
+    @Size(max = 255, message = "Максимальная длина названия — 255 символов")
     private String name;
-    @NotBlank
+    @NotBlank(message = "Описание вещи не должно быть пустым")
+    @Size(max = 200, message = "Максимальная длина описания — 200 символов")
     private String description;
-    @NotNull
+    @NotNull(message = "Укажите статус доступа к аренде")
     private Boolean available;
 
     private Long requestId;
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Результат сверки индекса с БД: счётчики расхождений и первые id для разбора.
+ */
+public record ConsistencyReport(int dbItems, int indexedItems,
+                                long missing, long stale, long extra,
+                                List<Long> missingSample, List<Long> staleSample, List<Long> extraSample) {
+
+    public boolean consistent() {
+        return missing == 0 && stale == 0 && extra == 0;
+    }
+
+    static Builder builder(int sampleLimit) {
+        return new Builder(sampleLimit);
+    }
+
+    static final class Builder {
+        private final int sampleLimit;
+        private final List<Long> missingSample = new ArrayList<>();
+        private final List<Long> staleSample = new ArrayList<>();
+        private final List<Long> extraSample = new ArrayList<>();
+        private long missing;
+        private long stale;
+        private long extra;
+
+        private Builder(int sampleLimit) {
+            this.sampleLimit = sampleLimit;
+        }
+
+        void missing(long id) {
+            missing++;
+            sample(missingSample, id);
+        }
+
+        void stale(long id) {
+            stale++;
+            sample(staleSample, id);
+        }
+
+        void extra(long id) {
+            extra++;
+            sample(extraSample, id);
+        }
+
+        ConsistencyReport build(int dbItems, int indexedItems) {
+            return new ConsistencyReport(dbItems, indexedItems, missing, stale, extra,
+                    List.copyOf(missingSample), List.copyOf(staleSample), List.copyOf(extraSample));
+        }
+
+        private void sample(List<Long> samples, long id) {
+            if (samples.size() < sampleLimit) {
+                samples.add(id);
+            }
+        }
+    }
+}
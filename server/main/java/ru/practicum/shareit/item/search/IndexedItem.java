@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Минимальная копия доступной вещи для ответа на поиск без обращения к БД.
+ * Нормализованные копии строк не храним — сравнение идёт без учёта регистра на месте.
+ */
+public record IndexedItem(long id, String name, String description, Long requestId) {
+
+    public static IndexedItem of(Item item) {
+        return new IndexedItem(item.getId(), item.getName(), item.getDescription(), item.getRequestId());
+    }
+
+    public Item toItem() {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(true)
+                .requestId(requestId)
+                .build();
+    }
+
+    public boolean nameContains(String query) {
+        return containsIgnoreCase(name, query);
+    }
+
+    public boolean matches(String query) {
+        return containsIgnoreCase(name, query) || containsIgnoreCase(description, query);
+    }
+
+    public boolean sameText(IndexedItem other) {
+        return name.equalsIgnoreCase(other.name) && description.equalsIgnoreCase(other.description);
+    }
+
+    public long estimateBytes() {
+        return 40 + stringBytes(name) + stringBytes(description);
+    }
+
+    // query уже в нижнем регистре; regionMatches вызываем только после совпадения первого символа
+    static boolean containsIgnoreCase(String text, String query) {
+        char first = query.charAt(0);
+        int rest = query.length() - 1;
+        int last = text.length() - query.length();
+        for (int i = 0; i <= last; i++) {
+            if (Character.toLowerCase(text.charAt(i)) == first
+                    && text.regionMatches(true, i + 1, query, 1, rest)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long stringBytes(String value) {
+        boolean latin1 = value.chars().allMatch(c -> c < 256);
+        return 24 + 16 + (long) value.length() * (latin1 ? 1 : 2);
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Снимок вещи после создания или изменения; индекс применяет его после коммита.
+ */
+public record ItemSavedEvent(long id, long ownerId, String name, String description, boolean available,
+                             Long requestId) {
+
+    public static ItemSavedEvent of(Item item) {
+        return new ItemSavedEvent(item.getId(), item.getOwner().getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()), item.getRequestId());
+    }
+
+    public IndexedItem toIndexedItem() {
+        return new IndexedItem(id, name, description, requestId);
+    }
+}
@@ -0,0 +1,228 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Поиск доступных вещей в памяти. Индекс строится из БД при старте
+ * и дальше обновляется событиями {@link ItemSavedEvent} после коммита.
+ * Пока индекс не готов, поиск идёт в БД.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final int SAMPLE_LIMIT = 20;
+    private static final int FILTER_BATCH = 500;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final int pageSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private TrigramIndex index = new TrigramIndex();
+    // События, пришедшие во время перестроения, применяются к новому индексу
+    private List<ItemSavedEvent> pending;
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.index.enabled:false}") boolean enabled,
+                           @Value("${shareit.search.index.page-size:5000}") int pageSize) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofPlatform().name("item-search-index").daemon().start(this::rebuild);
+        }
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.nanoTime();
+        TrigramIndex fresh = new TrigramIndex();
+        try {
+            forEachAvailable(item -> fresh.put(IndexedItem.of(item)));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Не удалось построить поисковый индекс, поиск остаётся в БД", e);
+            return;
+        }
+        fresh.trimToSize();
+
+        lock.writeLock().lock();
+        try {
+            pending.forEach(event -> apply(fresh, event));
+            pending = null;
+            index = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен за {} мс: {}", (System.nanoTime() - started) / 1_000_000, stats());
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            } else {
+                apply(index, event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Item> search(String text, int from, int size) {
+        List<IndexedItem> found = find(text);
+        if (from >= found.size()) {
+            return List.of();
+        }
+        return found.subList(from, Math.min(found.size(), from + size)).stream()
+                .map(IndexedItem::toItem)
+                .toList();
+    }
+
+    /**
+     * Поиск с отсевом: excluded получает id кандидатов пачками в порядке выдачи
+     * и возвращает те, что в ответ не попадают. Пачки запрашиваются, пока не набрана страница.
+     */
+    public List<Item> search(String text, int from, int size, Function<List<Long>, Set<Long>> excluded) {
+        List<IndexedItem> found = find(text);
+        List<Item> page = new ArrayList<>(size);
+        int skipped = 0;
+        for (int batchStart = 0; batchStart < found.size() && page.size() < size; batchStart += FILTER_BATCH) {
+            List<IndexedItem> batch = found.subList(batchStart, Math.min(found.size(), batchStart + FILTER_BATCH));
+            Set<Long> excludedIds = excluded.apply(batch.stream().map(IndexedItem::id).toList());
+            for (IndexedItem item : batch) {
+                if (excludedIds.contains(item.id())) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                } else if (page.size() < size) {
+                    page.add(item.toItem());
+                }
+            }
+        }
+        return page;
+    }
+
+    public TrigramIndex.IndexStats stats() {
+        lock.readLock().lock();
+        try {
+            return index.stats();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Сверяет индекс с БД. Записи, изменённые во время проверки, могут попасть в расхождения.
+     */
+    public ConsistencyReport checkConsistency() {
+        ConsistencyReport.Builder report = ConsistencyReport.builder(SAMPLE_LIMIT);
+        LongPostingList dbIds = new LongPostingList();
+        forEachAvailable(item -> {
+            dbIds.add(item.getId());
+            IndexedItem indexed;
+            lock.readLock().lock();
+            try {
+                indexed = index.get(item.getId());
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (indexed == null) {
+                report.missing(item.getId());
+            } else if (!indexed.equals(IndexedItem.of(item))) {
+                report.stale(item.getId());
+            }
+        });
+
+        long[] indexedIds;
+        lock.readLock().lock();
+        try {
+            indexedIds = index.sortedIds();
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (long id : indexedIds) {
+            if (!dbIds.contains(id)) {
+                report.extra(id);
+            }
+        }
+        return report.build(dbIds.size(), indexedIds.length);
+    }
+
+    private List<IndexedItem> find(String text) {
+        lock.readLock().lock();
+        try {
+            return index.search(text);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void forEachAvailable(Consumer<Item> consumer) {
+        long lastId = 0;
+        List<Item> page;
+        do {
+            page = itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(lastId, Limit.of(pageSize));
+            for (Item item : page) {
+                consumer.accept(item);
+                lastId = item.getId();
+            }
+        } while (page.size() == pageSize);
+    }
+
+    private static void apply(TrigramIndex target, ItemSavedEvent event) {
+        if (event.available()) {
+            target.put(event.toIndexedItem());
+        } else {
+            target.remove(event.id());
+        }
+    }
+}
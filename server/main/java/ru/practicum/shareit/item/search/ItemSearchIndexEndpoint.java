@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * GET /actuator/searchindex — состояние и занимаемая память,
+ * GET /actuator/searchindex/consistency — сверка с БД,
+ * POST /actuator/searchindex — перестроение.
+ */
+@Component
+@Endpoint(id = "searchindex")
+@RequiredArgsConstructor
+public class ItemSearchIndexEndpoint {
+    private final ItemSearchIndex searchIndex;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        TrigramIndex.IndexStats stats = searchIndex.stats();
+        return Map.of(
+                "enabled", searchIndex.isEnabled(),
+                "ready", searchIndex.isReady(),
+                "stats", stats,
+                "totalMegabytes", stats.totalBytes() >> 20
+        );
+    }
+
+    @ReadOperation
+    public ConsistencyReport consistency(@Selector String check) {
+        if (!"consistency".equals(check)) {
+            return null;
+        }
+        return searchIndex.checkConsistency();
+    }
+
+    @WriteOperation
+    public void rebuild() {
+        if (searchIndex.isEnabled()) {
+            searchIndex.rebuild();
+        }
+    }
+}
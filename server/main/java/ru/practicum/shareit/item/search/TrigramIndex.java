@@ -0,0 +1,209 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Инвертированный индекс по триграммам названия и описания.
+ * Не потокобезопасен, синхронизация — на стороне {@link ItemSearchIndex}.
+ */
+public class TrigramIndex {
+    private static final int GRAM = 3;
+
+    private final Map<Long, LongPostingList> postings = new HashMap<>();
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+
+    public int size() {
+        return documents.size();
+    }
+
+    public IndexedItem get(long id) {
+        return documents.get(id);
+    }
+
+    public void put(IndexedItem item) {
+        IndexedItem previous = documents.put(item.id(), item);
+        if (previous != null) {
+            if (previous.sameText(item)) {
+                return;
+            }
+            removePostings(previous);
+        }
+        for (long gram : grams(item)) {
+            postings.computeIfAbsent(gram, key -> new LongPostingList()).add(item.id());
+        }
+    }
+
+    public void remove(long id) {
+        IndexedItem previous = documents.remove(id);
+        if (previous != null) {
+            removePostings(previous);
+        }
+    }
+
+    public List<IndexedItem> search(String query) {
+        String normalizedQuery = query.toLowerCase(Locale.ROOT);
+        if (normalizedQuery.isEmpty()) {
+            return new ArrayList<>();
+        }
+        long[] candidates = normalizedQuery.length() < GRAM
+                ? prefixCandidates(normalizedQuery)
+                : intersectCandidates(normalizedQuery);
+
+        List<IndexedItem> found = new ArrayList<>();
+        for (long id : candidates) {
+            IndexedItem item = documents.get(id);
+            // Триграммы могут совпасть и без подстроки целиком
+            if (item != null && item.matches(normalizedQuery)) {
+                found.add(item);
+            }
+        }
+        // Как и в БД: сначала совпадения в названии, затем в описании
+        List<IndexedItem> byName = new ArrayList<>();
+        List<IndexedItem> byDescription = new ArrayList<>();
+        for (IndexedItem item : found) {
+            (item.nameContains(normalizedQuery) ? byName : byDescription).add(item);
+        }
+        byName.addAll(byDescription);
+        return byName;
+    }
+
+    public long[] sortedIds() {
+        long[] ids = documents.keySet().stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    public void trimToSize() {
+        postings.values().forEach(LongPostingList::trimToSize);
+    }
+
+    public IndexStats stats() {
+        long postingEntries = 0;
+        long postingBytes = 0;
+        for (LongPostingList list : postings.values()) {
+            postingEntries += list.size();
+            postingBytes += list.estimateBytes();
+        }
+        // Узел HashMap + упакованный ключ на каждую триграмму и каждый документ
+        long mapOverhead = (long) (postings.size() + documents.size()) * (32 + 16 + 8);
+        long documentBytes = documents.values().stream().mapToLong(IndexedItem::estimateBytes).sum();
+        return new IndexStats(documents.size(), postings.size(), postingEntries,
+                postingBytes, documentBytes, mapOverhead);
+    }
+
+    private long[] intersectCandidates(String normalizedQuery) {
+        long[] queryGrams = queryGrams(normalizedQuery);
+        List<LongPostingList> lists = new ArrayList<>(queryGrams.length);
+        for (long gram : queryGrams) {
+            LongPostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(LongPostingList::size));
+
+        long[] candidates = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            candidates = lists.get(i).retainAll(candidates, candidates.length);
+        }
+        return candidates;
+    }
+
+    // Запрос из 1-2 символов — объединение списков всех триграмм, которые с него начинаются.
+    // Благодаря добивке текста в конце такие триграммы есть у каждого вхождения.
+    private long[] prefixCandidates(String normalizedQuery) {
+        long prefix = (long) normalizedQuery.charAt(0) << 32;
+        long mask = 0xFFFFL << 32;
+        if (normalizedQuery.length() == 2) {
+            prefix |= (long) normalizedQuery.charAt(1) << 16;
+            mask |= 0xFFFFL << 16;
+        }
+        List<LongPostingList> lists = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Long, LongPostingList> entry : postings.entrySet()) {
+            if ((entry.getKey() & mask) == prefix) {
+                lists.add(entry.getValue());
+                total += entry.getValue().size();
+            }
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (LongPostingList list : lists) {
+            offset = list.copyTo(all, offset);
+        }
+        return unique(all);
+    }
+
+    private void removePostings(IndexedItem item) {
+        for (long gram : grams(item)) {
+            LongPostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(item.id());
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static long[] grams(IndexedItem item) {
+        long[] nameGrams = documentGrams(item.name());
+        long[] descriptionGrams = documentGrams(item.description());
+        long[] all = Arrays.copyOf(nameGrams, nameGrams.length + descriptionGrams.length);
+        System.arraycopy(descriptionGrams, 0, all, nameGrams.length, descriptionGrams.length);
+        return unique(all);
+    }
+
+    // Текст добивается двумя нулевыми символами, чтобы каждая позиция начинала триграмму
+    private static long[] documentGrams(String text) {
+        long[] grams = new long[text.length()];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = gram(text, i);
+        }
+        return unique(grams);
+    }
+
+    private static long[] queryGrams(String query) {
+        long[] grams = new long[query.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = gram(query, i);
+        }
+        return unique(grams);
+    }
+
+    private static long gram(String text, int index) {
+        return ((long) lower(text, index) << 32) | ((long) lower(text, index + 1) << 16) | lower(text, index + 2);
+    }
+
+    private static char lower(String text, int index) {
+        return index < text.length() ? Character.toLowerCase(text.charAt(index)) : 0;
+    }
+
+    private static long[] unique(long[] values) {
+        if (values.length < 2) {
+            return values;
+        }
+        Arrays.sort(values);
+        int count = 1;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] != values[count - 1]) {
+                values[count++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    public record IndexStats(int items, int grams, long postingEntries,
+                             long postingBytes, long documentBytes, long mapOverheadBytes) {
+        public long totalBytes() {
+            return postingBytes + documentBytes + mapOverheadBytes;
+        }
+    }
+}
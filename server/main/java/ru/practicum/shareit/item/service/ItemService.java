@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.comments.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.matching.RequestMatchDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import ru.practicum.shareit.item.comments.CreateCommentDto;
@@ -13,6 +16,8 @@ import ru.practicum.shareit.item.dto.ItemDto;
 public interface ItemService {
     Item createItem(Item item, Long ownerId);
 
+    List<Item> createItems(List<Item> items, Long ownerId);
+
     Item getItemEntityById(Long id);
 
     ItemDto getItemById(Long id, Long userId);
@@ -21,7 +26,13 @@ public interface ItemService {
 
     Item updateItem(Long itemId, UpdateItemDto item, Long ownerId);
 
-    List<Item> searchItems(String text);
+    List<Item> searchItems(String text, int from, int size);
+
+    List<Item> searchItemsFreeBetween(String text, LocalDateTime start, LocalDateTime end, int from, int size);
 
     CommentDto addComment(Long itemId, Long userId, CreateCommentDto commentDto);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<RequestMatchDto> getRequestMatches(Long itemId, Long userId);
 }
@@ -2,10 +2,11 @@ package ru.practicum.shareit.item.service;
 
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 
 import ru.practicum.shareit.exceptions.exception.NotFoundException;
@@ -13,14 +14,20 @@ import ru.practicum.shareit.item.dto.*;
 
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.comments.*;
+import ru.practicum.shareit.item.search.ItemSavedEvent;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.timeline.ItemTimeline;
+import ru.practicum.shareit.item.timeline.ItemTimelineService;
+import ru.practicum.shareit.request.matching.RequestMatchDto;
+import ru.practicum.shareit.request.matching.RequestMatchRepository;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,13 +38,33 @@ public class ItemServiceImpl implements ItemService {
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemTimelineService timelineService;
+    private final BookingIntervalIndex intervalIndex;
+    private final RequestMatchRepository matchRepository;
 
     @Override
     @Transactional
     public Item createItem(Item item, Long ownerId) {
         var owner = userService.getUserById(ownerId);
         item.setOwner(owner);
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        timelineService.initTimeline(saved.getId());
+        eventPublisher.publishEvent(ItemSavedEvent.of(saved));
+        return saved;
+    }
+
+    // Одна транзакция на пачку: вставки вещей и item_timelines уходят JDBC-пачками
+    @Override
+    @Transactional
+    public List<Item> createItems(List<Item> items, Long ownerId) {
+        var owner = userService.getUserById(ownerId);
+        items.forEach(item -> item.setOwner(owner));
+        List<Item> saved = itemRepository.saveAll(items);
+        timelineService.initTimelines(saved.stream().map(Item::getId).toList());
+        saved.forEach(item -> eventPublisher.publishEvent(ItemSavedEvent.of(item)));
+        return saved;
     }
 
     @Override
@@ -52,53 +79,32 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NotFoundException("Item not found with id: " + id));
 
 
-        Booking lastBooking = null;
-        Booking nextBooking = null;
+        // Фиксированное число запросов: вещь, запись item_timelines для владельца, комментарии с авторами
+        ItemDto.BookingInfo lastBooking = null;
+        ItemDto.BookingInfo nextBooking = null;
 
         if (item.getOwner().getId().equals(userId)) {
-            Optional<Booking> lastBookingOpt = bookingRepository
-                    .findFirstByItemIdAndStartBeforeAndStatusOrderByStartDesc(
-                            id, LocalDateTime.now(), BookingStatus.APPROVED);
-            Optional<Booking> nextBookingOpt = bookingRepository
-                    .findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
-                            id, LocalDateTime.now(), BookingStatus.APPROVED);
-            lastBooking = lastBookingOpt.orElse(null);
-            nextBooking = nextBookingOpt.orElse(null);
+            ItemTimeline timeline = timelineService.getTimelines(List.of(id)).get(id);
+            lastBooking = timeline.getLastBookingInfo();
+            nextBooking = timeline.getNextBookingInfo();
         }
 
-
-        List<CommentDto> comments = commentRepository.findByItemIdOrderByCreatedDesc(id)
-                .stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
+        List<CommentDto> comments = commentRepository.findCommentDtosByItemId(id);
 
         return ItemMapper.toItemDto(item, lastBooking, nextBooking, comments);
     }
 
     @Override
     public List<ItemDto> getItemsByOwnerId(Long ownerId) {
-        userService.getUserById(ownerId);
+        userService.validateUserExists(ownerId);
 
         List<Item> items = itemRepository.findByOwnerIdOrderById(ownerId);
         List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
 
-
-        Map<Long, Booking> lastBookings = bookingRepository
-                .findLastBookingsForItems(itemIds, LocalDateTime.now(), BookingStatus.APPROVED)
-                .stream()
-                .collect(Collectors.toMap(
-                        booking -> booking.getItem().getId(),
-                        booking -> booking
-                ));
-
-        Map<Long, Booking> nextBookings = bookingRepository
-                .findNextBookingsForItems(itemIds, LocalDateTime.now(), BookingStatus.APPROVED)
-                .stream()
-                .collect(Collectors.toMap(
-                        booking -> booking.getItem().getId(),
-                        booking -> booking
-                ));
-
+        Map<Long, ItemTimeline> timelines = timelineService.getTimelines(itemIds);
 
         Map<Long, List<CommentDto>> commentsByItem = commentRepository
                 .findByItemIdInOrderByCreatedDesc(itemIds)
@@ -111,11 +117,11 @@ public class ItemServiceImpl implements ItemService {
 
         return items.stream()
                 .map(item -> {
-                    Booking lastBooking = lastBookings.get(item.getId());
-                    Booking nextBooking = nextBookings.get(item.getId());
+                    ItemTimeline timeline = timelines.get(item.getId());
                     List<CommentDto> comments = commentsByItem.getOrDefault(item.getId(), Collections.emptyList());
 
-                    return ItemMapper.toItemDto(item, lastBooking, nextBooking, comments);
+                    return ItemMapper.toItemDto(item, timeline.getLastBookingInfo(), timeline.getNextBookingInfo(),
+                            comments);
                 })
                 .collect(Collectors.toList());
     }
@@ -136,15 +142,36 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item updatedItem = ItemMapper.updateItemFields(existingItem, itemUpdate);
-        return itemRepository.save(updatedItem);
+        Item saved = itemRepository.save(updatedItem);
+        eventPublisher.publishEvent(ItemSavedEvent.of(saved));
+        return saved;
     }
 
     @Override
-    public List<Item> searchItems(String text) {
+    public List<Item> searchItems(String text, int from, int size) {
         if (text == null || text.isBlank()) {
             return List.of();
         }
-        return itemRepository.searchAvailableItems(text);
+        if (searchIndex.isReady()) {
+            return searchIndex.search(text, from, size);
+        }
+        return itemRepository.searchAvailableItems(text, from, size);
+    }
+
+    @Override
+    public List<Item> searchItemsFreeBetween(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Parameter 'start' must be before 'end'");
+        }
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        if (searchIndex.isReady()) {
+            // Занятость проверяется одним запросом на пачку кандидатов, а не по вещи
+            return searchIndex.search(text, from, size, itemIds -> new HashSet<>(
+                    bookingRepository.findItemIdsBookedBetween(itemIds, start, end, BookingStatus.APPROVED)));
+        }
+        return itemRepository.searchAvailableItemsFreeBetween(text, start, end, from, size);
     }
 
     @Override
@@ -171,4 +198,36 @@ public class ItemServiceImpl implements ItemService {
     }
 
 
-}
\ No newline at end of file
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Parameter 'from' must be before 'to'");
+        }
+        Item item = getItemEntityById(itemId);
+
+        // Прошедшее время не бронируется, поэтому окно начинается не раньше текущего момента
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from.isAfter(now) ? from : now;
+        List<ItemAvailabilityDto.Slot> slots = !item.getAvailable() || !start.isBefore(to)
+                ? List.of()
+                : intervalIndex.freeSlots(itemId, start, to).stream()
+                .map(slot -> new ItemAvailabilityDto.Slot(slot.start(), slot.end()))
+                .toList();
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .freeSlots(slots)
+                .build();
+    }
+
+    @Override
+    public List<RequestMatchDto> getRequestMatches(Long itemId, Long userId) {
+        Item item = getItemEntityById(itemId);
+        if (!item.getOwner().getId().equals(userId)) {
+            throw new NotFoundException("User is not the owner of the item");
+        }
+        return matchRepository.findByItemId(itemId);
+    }
+}
@@ -1,24 +1,66 @@
 package ru.practicum.shareit.item.storage;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByOwnerIdOrderById(Long ownerId);
 
-    @Query("""
-            SELECT i FROM Item i\s
-            WHERE i.available = true\s
-            AND (i.name ILIKE %:text%\s
-            OR i.description ILIKE %:text%)
-            \s""")
-    List<Item> searchAvailableItems(String text);
+    // ILIKE обслуживается trigram-индексами из schema-postgresql.sql
+    @Query(value = """
+            SELECT i.* FROM items i
+            WHERE i.is_available
+            AND (i.name ILIKE '%' || :text || '%'
+            OR i.description ILIKE '%' || :text || '%')
+            ORDER BY word_similarity(:text, i.name) DESC,
+            word_similarity(:text, i.description) DESC,
+            i.id
+            LIMIT :size OFFSET :from
+            """, nativeQuery = true)
+    List<Item> searchAvailableItems(@Param("text") String text, @Param("from") int from, @Param("size") int size);
+
+    // То же, но без вещей с подтверждённым бронированием, пересекающим [start, end).
+    // Антиджойн проверяется по idx_bookings_item_status_start на каждую найденную вещь
+    @Query(value = """
+            SELECT i.* FROM items i
+            WHERE i.is_available
+            AND (i.name ILIKE '%' || :text || '%'
+            OR i.description ILIKE '%' || :text || '%')
+            AND NOT EXISTS (
+                SELECT 1 FROM bookings b
+                WHERE b.item_id = i.id AND b.status = 'APPROVED'
+                AND b.start_date < :end AND b.end_date > :start)
+            ORDER BY word_similarity(:text, i.name) DESC,
+            word_similarity(:text, i.description) DESC,
+            i.id
+            LIMIT :size OFFSET :from
+            """, nativeQuery = true)
+    List<Item> searchAvailableItemsFreeBetween(@Param("text") String text,
+                                               @Param("start") LocalDateTime start,
+                                               @Param("end") LocalDateTime end,
+                                               @Param("from") int from,
+                                               @Param("size") int size);
 
-    // В ItemRepository
-    List<Item> findByRequestId(Long requestId);
+    // Постраничное чтение по id для построения поискового индекса
+    List<Item> findByAvailableTrueAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Ответы на страницу запросов одним запросом; владелец берётся из owner_id без загрузки пользователя
+    @Query("""
+            SELECT new ru.practicum.shareit.request.dto.ItemRequestDto$ItemDto(
+                i.id, i.name, i.description, i.available, i.requestId, i.owner.id)
+            FROM Item i
+            WHERE i.requestId IN :requestIds
+            ORDER BY i.id
+            """)
+    List<ItemRequestDto.ItemDto> findRequestItems(@Param("requestIds") Collection<Long> requestIds);
 }
\ No newline at end of file
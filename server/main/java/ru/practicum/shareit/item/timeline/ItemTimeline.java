@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.timeline;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Последнее и ближайшее подтверждённые бронирования вещи.
+ * Пересчитывается при подтверждении бронирования и фоновым сдвигом, когда наступает next_start.
+ */
+@Entity
+@Table(name = "item_timelines")
+@Getter
+@Setter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemTimeline implements Persistable<Long> {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "last_start")
+    private LocalDateTime lastStart;
+
+    @Column(name = "last_end")
+    private LocalDateTime lastEnd;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+
+    @Column(name = "next_end")
+    private LocalDateTime nextEnd;
+
+    // id задан заранее, поэтому без флага save шёл бы через merge с лишним SELECT перед каждой вставкой
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean fresh = false;
+
+    public static ItemTimeline empty(Long itemId) {
+        return ItemTimeline.builder().itemId(itemId).fresh(true).build();
+    }
+
+    @Override
+    public Long getId() {
+        return itemId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostLoad
+    @PrePersist
+    void markStored() {
+        fresh = false;
+    }
+
+    // Ближайшее бронирование уже началось — запись нужно сдвинуть
+    public boolean isStale(LocalDateTime now) {
+        return nextStart != null && !nextStart.isAfter(now);
+    }
+
+    public void setLast(Booking booking) {
+        lastBookingId = booking != null ? booking.getId() : null;
+        lastBookerId = booking != null ? booking.getBooker().getId() : null;
+        lastStart = booking != null ? booking.getStart() : null;
+        lastEnd = booking != null ? booking.getEnd() : null;
+    }
+
+    public void setNext(Booking booking) {
+        nextBookingId = booking != null ? booking.getId() : null;
+        nextBookerId = booking != null ? booking.getBooker().getId() : null;
+        nextStart = booking != null ? booking.getStart() : null;
+        nextEnd = booking != null ? booking.getEnd() : null;
+    }
+
+    public ItemDto.BookingInfo getLastBookingInfo() {
+        return lastBookingId == null ? null : new ItemDto.BookingInfo(lastBookingId, lastBookerId, lastStart, lastEnd);
+    }
+
+    public ItemDto.BookingInfo getNextBookingInfo() {
+        return nextBookingId == null ? null : new ItemDto.BookingInfo(nextBookingId, nextBookerId, nextStart, nextEnd);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.timeline;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemTimelineRepository extends JpaRepository<ItemTimeline, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    // Строки блокируются по возрастанию item_id, чтобы пакеты с общими вещами не взаимоблокировались
+    @Query("SELECT t FROM ItemTimeline t WHERE t.itemId IN :itemIds ORDER BY t.itemId")
+    List<ItemTimeline> findAllForUpdate(@Param("itemIds") List<Long> itemIds);
+
+    @Query("SELECT t.itemId FROM ItemTimeline t WHERE t.nextStart <= :now ORDER BY t.nextStart")
+    List<Long> findStaleItemIds(@Param("now") LocalDateTime now, Limit limit);
+
+    // Вещи, созданные до появления таблицы
+    @Query(value = """
+            SELECT i.id FROM items i
+            LEFT JOIN item_timelines t ON t.item_id = i.id
+            WHERE t.item_id IS NULL
+            ORDER BY i.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findItemIdsWithoutTimeline(@Param("limit") int limit);
+}
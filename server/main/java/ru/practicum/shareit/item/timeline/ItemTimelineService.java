@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.timeline;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ItemTimelineService {
+    void initTimeline(Long itemId);
+
+    void initTimelines(List<Long> itemIds);
+
+    void refreshTimeline(Long itemId);
+
+    void refreshTimelines(List<Long> itemIds);
+
+    Map<Long, ItemTimeline> getTimelines(List<Long> itemIds);
+
+    int rollForward();
+}
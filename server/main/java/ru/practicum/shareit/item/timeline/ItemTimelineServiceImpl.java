@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item.timeline;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemTimelineServiceImpl implements ItemTimelineService {
+    private final ItemTimelineRepository timelineRepository;
+    private final BookingRepository bookingRepository;
+
+    @Value("${shareit.timeline.roll-forward.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public void initTimeline(Long itemId) {
+        timelineRepository.save(ItemTimeline.empty(itemId));
+    }
+
+    @Override
+    @Transactional
+    public void initTimelines(List<Long> itemIds) {
+        timelineRepository.saveAll(itemIds.stream().map(ItemTimeline::empty).toList());
+    }
+
+    @Override
+    @Transactional
+    public void refreshTimeline(Long itemId) {
+        refreshTimelines(List.of(itemId));
+    }
+
+    @Override
+    @Transactional
+    public void refreshTimelines(List<Long> itemIds) {
+        // Блокировка строк упорядочивает параллельные подтверждения и фоновый сдвиг
+        Map<Long, ItemTimeline> timelines = timelineRepository.findAllForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(ItemTimeline::getItemId, Function.identity()));
+        itemIds.forEach(itemId -> timelines.computeIfAbsent(itemId, ItemTimeline::empty));
+        fill(timelines, LocalDateTime.now());
+        timelineRepository.saveAll(timelines.values());
+    }
+
+    @Override
+    public Map<Long, ItemTimeline> getTimelines(List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemTimeline> timelines = timelineRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemTimeline::getItemId, Function.identity()));
+
+        // Отсутствующие и устаревшие записи считаем по бронированиям, не дожидаясь фонового сдвига
+        Map<Long, ItemTimeline> outdated = new HashMap<>();
+        for (Long itemId : itemIds) {
+            ItemTimeline timeline = timelines.get(itemId);
+            if (timeline == null || timeline.isStale(now)) {
+                outdated.put(itemId, ItemTimeline.empty(itemId));
+            }
+        }
+        if (!outdated.isEmpty()) {
+            fill(outdated, now);
+            timelines.putAll(outdated);
+        }
+        return timelines;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${shareit.timeline.roll-forward.delay:PT1M}")
+    public int rollForward() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> staleIds = timelineRepository.findStaleItemIds(now, Limit.of(batchSize));
+        List<ItemTimeline> timelines = new ArrayList<>(staleIds.isEmpty()
+                ? List.of()
+                : timelineRepository.findAllForUpdate(staleIds));
+        timelineRepository.findItemIdsWithoutTimeline(batchSize).stream()
+                .map(ItemTimeline::empty)
+                .forEach(timelines::add);
+        if (timelines.isEmpty()) {
+            return 0;
+        }
+
+        fill(timelines.stream().collect(Collectors.toMap(ItemTimeline::getItemId, Function.identity())), now);
+        timelineRepository.saveAll(timelines);
+        log.debug("Сдвинуто записей item_timelines: {}", timelines.size());
+        return timelines.size();
+    }
+
+    private void fill(Map<Long, ItemTimeline> timelines, LocalDateTime now) {
+        List<Long> itemIds = List.copyOf(timelines.keySet());
+        Map<Long, Booking> last = byItem(bookingRepository.findLastBookingsForItems(itemIds, now, BookingStatus.APPROVED));
+        Map<Long, Booking> next = byItem(bookingRepository.findNextBookingsForItems(itemIds, now, BookingStatus.APPROVED));
+        timelines.forEach((itemId, timeline) -> {
+            timeline.setLast(last.get(itemId));
+            timeline.setNext(next.get(itemId));
+        });
+    }
+
+    private static Map<Long, Booking> byItem(List<Booking> bookings) {
+        return bookings.stream().collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity()));
+    }
+}
@@ -2,8 +2,10 @@ package ru.practicum.shareit.request;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.matching.RequestMatchDto;
 
 
 import java.util.List;
@@ -25,11 +27,12 @@ public class ItemRequestController {
         return requestService.getUserRequests(userId);
     }
 
+    // Следующая страница — по курсору из заголовка X-Next-Cursor
     @GetMapping("/all")
-    public List<ItemRequestDto> getOtherUsersRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                      @RequestParam(defaultValue = "0") int from,
-                                                      @RequestParam(defaultValue = "10") int size) {
-        return requestService.getOtherUsersRequests(userId, from, size);
+    public ResponseEntity<List<ItemRequestDto>> getOtherUsersRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "10") int size) {
+        return requestService.getOtherUsersRequests(userId, cursor, size).toResponse();
     }
 
     @GetMapping("/{requestId}")
@@ -37,4 +40,11 @@ public class ItemRequestController {
                                          @RequestHeader("X-Sharer-User-Id") Long userId) {
         return requestService.getRequestById(requestId, userId);
     }
+
+    // Подходящие доступные вещи, подобранные автоматически; только для автора запроса
+    @GetMapping("/{requestId}/matches")
+    public List<RequestMatchDto> getItemMatches(@PathVariable Long requestId,
+                                                @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return requestService.getItemMatches(requestId, userId);
+    }
 }
\ No newline at end of file
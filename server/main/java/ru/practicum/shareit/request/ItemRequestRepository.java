@@ -1,20 +1,51 @@
 package ru.practicum.shareit.request;
 
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.matching.OpenRequest;
 
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findByRequesterIdOrderByCreatedDesc(Long requesterId);
 
-    List<ItemRequest> findByRequesterIdNotOrderByCreatedDesc(Long requesterId, Pageable pageable);
+    // Лента чужих запросов по курсору (created, id), см. idx_requests_created_id
+    @Query("""
+            SELECT r FROM ItemRequest r
+            WHERE r.requester.id <> :userId
+            ORDER BY r.created DESC, r.id DESC
+            """)
+    List<ItemRequest> findFeed(@Param("userId") Long userId, Limit limit);
 
-    @Query("SELECT ir FROM ItemRequest ir WHERE ir.requester.id <> ?1 ORDER BY ir.created DESC")
-    List<ItemRequest> findAllByRequesterIdNotOrderByCreatedDesc(Long requesterId, Pageable pageable);
+    @Query("""
+            SELECT r FROM ItemRequest r
+            WHERE r.requester.id <> :userId
+            AND (r.created < :created OR (r.created = :created AND r.id < :id))
+            ORDER BY r.created DESC, r.id DESC
+            """)
+    List<ItemRequest> findFeedAfter(@Param("userId") Long userId,
+                                    @Param("created") LocalDateTime created,
+                                    @Param("id") Long id,
+                                    Limit limit);
+
+    // Запросы без ответов по возрастанию id для построения индекса подбора
+    @Query("""
+            SELECT new ru.practicum.shareit.request.matching.OpenRequest(r.id, r.requester.id, r.description)
+            FROM ItemRequest r
+            WHERE r.id > :afterId
+            AND NOT EXISTS (SELECT 1 FROM Item i WHERE i.requestId = r.id)
+            ORDER BY r.id
+            """)
+    List<OpenRequest> findOpenRequests(@Param("afterId") long afterId, Limit limit);
+
+    // Начало ленты для всех пользователей сразу, из него строится общий кэш
+    @Query("SELECT r FROM ItemRequest r ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findNewest(Limit limit);
 }
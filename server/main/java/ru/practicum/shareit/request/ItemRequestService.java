@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request;
 
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.matching.RequestMatchDto;
 
 import java.util.List;
 
@@ -9,7 +11,9 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getUserRequests(Long userId);
 
-    List<ItemRequestDto> getOtherUsersRequests(Long userId, int from, int size);
+    KeysetPage<ItemRequestDto> getOtherUsersRequests(Long userId, String cursor, int size);
 
     ItemRequestDto getRequestById(Long requestId, Long userId);
+
+    List<RequestMatchDto> getItemMatches(Long requestId, Long userId);
 }
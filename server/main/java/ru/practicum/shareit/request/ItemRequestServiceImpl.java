@@ -2,23 +2,28 @@ package ru.practicum.shareit.request;
 
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.exception.NotFoundException;
 
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.matching.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.matching.RequestMatchDto;
+import ru.practicum.shareit.request.matching.RequestMatchRepository;
 
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,6 +33,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository requestRepository;
     private final UserService userService;
     private final ItemRepository itemRepository;
+    private final RequestFeedCache feedCache;
+    private final RequestMatchRepository matchRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -41,50 +49,88 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .build();
 
         ItemRequest savedRequest = requestRepository.save(request);
-        return toItemRequestDto(savedRequest);
+        // Сегмент ленты сбрасывается после коммита, см. RequestFeedCache
+        eventPublisher.publishEvent(ItemRequestCreatedEvent.of(savedRequest));
+        // У нового запроса ответов ещё нет
+        return toItemRequestDto(savedRequest, List.of());
     }
 
     @Override
     public List<ItemRequestDto> getUserRequests(Long userId) {
-        userService.getUserById(userId);
+        userService.validateUserExists(userId);
         List<ItemRequest> requests = requestRepository.findByRequesterIdOrderByCreatedDesc(userId);
-        return requests.stream()
-                .map(this::toItemRequestDto)
-                .collect(Collectors.toList());
+        return toItemRequestDtos(requests);
     }
 
     @Override
-    public List<ItemRequestDto> getOtherUsersRequests(Long userId, int from, int size) {
-        userService.getUserById(userId);
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("created").descending());
-        List<ItemRequest> requests = requestRepository.findByRequesterIdNotOrderByCreatedDesc(userId, pageable);
-        return requests.stream()
-                .map(this::toItemRequestDto)
-                .collect(Collectors.toList());
+    public KeysetPage<ItemRequestDto> getOtherUsersRequests(Long userId, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        KeysetCursor position = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        userService.validateUserExists(userId);
+        return feedCache.page(userId, position, size, this::loadNewest)
+                .orElseGet(() -> loadFeedPage(userId, position, size));
     }
 
     @Override
     public ItemRequestDto getRequestById(Long requestId, Long userId) {
-        userService.getUserById(userId);
+        userService.validateUserExists(userId);
+        ItemRequest request = requestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Request not found with id: " + requestId));
+        return toItemRequestDtos(List.of(request)).get(0);
+    }
+
+    @Override
+    public List<RequestMatchDto> getItemMatches(Long requestId, Long userId) {
         ItemRequest request = requestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Request not found with id: " + requestId));
-        return toItemRequestDto(request);
+        if (!request.getRequester().getId().equals(userId)) {
+            throw new NotFoundException("User is not the author of the request");
+        }
+        return matchRepository.findAvailableByRequestId(requestId);
+    }
+
+    // Запрашиваем на одну запись больше: по ней видно, есть ли следующая страница
+    private KeysetPage<ItemRequestDto> loadFeedPage(Long userId, KeysetCursor position, int size) {
+        Limit limit = Limit.of(size + 1);
+        List<ItemRequest> requests = position == null
+                ? requestRepository.findFeed(userId, limit)
+                : requestRepository.findFeedAfter(userId, position.start(), position.id(), limit);
+        if (requests.size() <= size) {
+            return new KeysetPage<>(toItemRequestDtos(requests), null);
+        }
+        List<ItemRequest> content = requests.subList(0, size);
+        ItemRequest last = content.get(size - 1);
+        return new KeysetPage<>(toItemRequestDtos(content), new KeysetCursor(last.getCreated(), last.getId()).encode());
+    }
+
+    // requester не загружается: id берётся из прокси
+    private List<RequestFeedCache.FeedEntry> loadNewest(int limit) {
+        List<ItemRequest> requests = requestRepository.findNewest(Limit.of(limit));
+        List<ItemRequestDto> dtos = toItemRequestDtos(requests);
+        List<RequestFeedCache.FeedEntry> entries = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            entries.add(new RequestFeedCache.FeedEntry(requests.get(i).getRequester().getId(), dtos.get(i)));
+        }
+        return entries;
     }
 
-    private ItemRequestDto toItemRequestDto(ItemRequest request) {
-        List<Item> items = itemRepository.findByRequestId(request.getId());
-
-        List<ItemRequestDto.ItemDto> itemDtos = items.stream()
-                .map(item -> ItemRequestDto.ItemDto.builder()
-                        .id(item.getId())
-                        .name(item.getName())
-                        .description(item.getDescription())
-                        .available(item.getAvailable())
-                        .requestId(item.getRequestId())
-                        .ownerId(item.getOwner().getId())
-                        .build())
+    // Ответы на все запросы страницы загружаются одним запросом и раскладываются по requestId
+    private List<ItemRequestDto> toItemRequestDtos(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        List<Long> requestIds = requests.stream().map(ItemRequest::getId).toList();
+        Map<Long, List<ItemRequestDto.ItemDto>> itemsByRequest = itemRepository.findRequestItems(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemRequestDto.ItemDto::getRequestId));
+
+        return requests.stream()
+                .map(request -> toItemRequestDto(request, itemsByRequest.getOrDefault(request.getId(), List.of())))
                 .collect(Collectors.toList());
+    }
 
+    private ItemRequestDto toItemRequestDto(ItemRequest request, List<ItemRequestDto.ItemDto> itemDtos) {
         return ItemRequestDto.builder()
                 .id(request.getId())
                 .description(request.getDescription())
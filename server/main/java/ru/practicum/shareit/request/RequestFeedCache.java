@@ -0,0 +1,108 @@
+package ru.practicum.shareit.request;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.search.ItemSavedEvent;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.matching.ItemRequestCreatedEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+/**
+ * Общий для всех пользователей кэш начала ленты запросов: последние segment-size запросов с ответами.
+ * Лента пользователя отличается только исключением его собственных запросов, поэтому страница
+ * собирается из сегмента фильтрацией. Если сегмента не хватает на страницу, ответ идёт из БД.
+ * Отдаваемые DTO общие и не должны изменяться вызывающим кодом.
+ */
+@Component
+public class RequestFeedCache {
+    private static final String KEY = "newest";
+
+    private final Cache<String, List<FeedEntry>> segment;
+    private final int segmentSize;
+
+    public RequestFeedCache(ObjectProvider<MeterRegistry> meterRegistryProvider,
+                            @Value("${shareit.requests.feed.segment-size:100}") int segmentSize,
+                            @Value("${shareit.requests.feed.ttl:PT5S}") Duration ttl) {
+        this.segmentSize = segmentSize;
+        this.segment = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new),
+                segment, "requests.feed");
+    }
+
+    /**
+     * Страница ленты из сегмента; пусто, если сегмент не покрывает её целиком.
+     * loader получает размер сегмента и возвращает самые новые запросы всех пользователей.
+     */
+    public Optional<KeysetPage<ItemRequestDto>> page(long userId, KeysetCursor cursor, int size,
+                                                     IntFunction<List<FeedEntry>> loader) {
+        if (size >= segmentSize) {
+            return Optional.empty();
+        }
+        List<FeedEntry> entries = segment.get(KEY, key -> List.copyOf(loader.apply(segmentSize)));
+        List<ItemRequestDto> content = new ArrayList<>(size);
+        for (FeedEntry entry : entries) {
+            if (entry.requesterId() == userId || !entry.isAfter(cursor)) {
+                continue;
+            }
+            if (content.size() == size) {
+                // Есть хотя бы ещё одна запись — значит, следующая страница существует
+                ItemRequestDto last = content.get(size - 1);
+                return Optional.of(new KeysetPage<>(content,
+                        new KeysetCursor(last.getCreated(), last.getId()).encode()));
+            }
+            content.add(entry.request());
+        }
+        // Сегмент короче лимита — в таблице больше ничего нет
+        if (entries.size() < segmentSize) {
+            return Optional.of(new KeysetPage<>(content, null));
+        }
+        return Optional.empty();
+    }
+
+    public void invalidate() {
+        segment.invalidateAll();
+    }
+
+    // Сброс до коммита дал бы конкурентному чтению снова закэшировать ленту без нового запроса.
+    // Другие экземпляры увидят запрос после истечения TTL сегмента
+    @TransactionalEventListener
+    public void onRequestCreated(ItemRequestCreatedEvent event) {
+        invalidate();
+    }
+
+    // Новый ответ на запрос меняет список items у запроса в сегменте
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        if (event.requestId() != null) {
+            invalidate();
+        }
+    }
+
+    public record FeedEntry(long requesterId, ItemRequestDto request) {
+
+        boolean isAfter(KeysetCursor cursor) {
+            if (cursor == null) {
+                return true;
+            }
+            int byCreated = request.getCreated().compareTo(cursor.start());
+            return byCreated < 0 || byCreated == 0 && request.getId() < cursor.id();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.matching;
+
+import ru.practicum.shareit.request.ItemRequest;
+
+/**
+ * Новый запрос; после коммита индекс подбора добавляет его, а кэш ленты сбрасывает сегмент.
+ */
+public record ItemRequestCreatedEvent(long id, long requesterId, String description) {
+
+    public static ItemRequestCreatedEvent of(ItemRequest request) {
+        return new ItemRequestCreatedEvent(request.getId(), request.getRequester().getId(), request.getDescription());
+    }
+
+    public OpenRequest toOpenRequest() {
+        return new OpenRequest(id, requesterId, description);
+    }
+}
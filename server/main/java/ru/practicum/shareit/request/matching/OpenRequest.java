@@ -0,0 +1,7 @@
+package ru.practicum.shareit.request.matching;
+
+/**
+ * Запрос без ответов — кандидат для подбора вещей.
+ */
+public record OpenRequest(long id, long requesterId, String description) {
+}
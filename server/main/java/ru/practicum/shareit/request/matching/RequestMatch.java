@@ -0,0 +1,34 @@
+package ru.practicum.shareit.request.matching;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Предложенное соответствие вещи открытому запросу, см. {@link RequestMatcher}.
+ */
+@Entity
+@Table(name = "request_matches")
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RequestMatch implements Persistable<RequestMatchId> {
+    @EmbeddedId
+    private RequestMatchId id;
+
+    @Column(name = "score", nullable = false)
+    private Double score;
+
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+
+    // Подсказки только вставляются, старые для вещи удаляются заранее — лишний SELECT из merge не нужен
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.*;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class RequestMatchDto {
+    private Long itemId;
+    private String itemName;
+    private Long requestId;
+    private String requestDescription;
+    private Double score;
+}
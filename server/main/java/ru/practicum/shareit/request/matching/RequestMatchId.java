@@ -0,0 +1,21 @@
+package ru.practicum.shareit.request.matching;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Embeddable
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class RequestMatchId implements Serializable {
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "request_id")
+    private Long requestId;
+}
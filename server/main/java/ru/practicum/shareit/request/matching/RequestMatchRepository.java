@@ -0,0 +1,42 @@
+package ru.practicum.shareit.request.matching;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RequestMatchRepository extends JpaRepository<RequestMatch, RequestMatchId> {
+
+    // Перед пересчётом подбора для изменённых вещей
+    @Modifying
+    @Query("DELETE FROM RequestMatch m WHERE m.id.itemId IN :itemIds")
+    void deleteByItemIds(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.request.matching.RequestMatchDto(
+                i.id, i.name, r.id, r.description, m.score)
+            FROM RequestMatch m
+            JOIN Item i ON i.id = m.id.itemId
+            JOIN ItemRequest r ON r.id = m.id.requestId
+            WHERE m.id.itemId = :itemId
+            ORDER BY m.score DESC, r.id DESC
+            """)
+    List<RequestMatchDto> findByItemId(@Param("itemId") Long itemId);
+
+    // Недоступные вещи запрашивающему не предлагаются
+    @Query("""
+            SELECT new ru.practicum.shareit.request.matching.RequestMatchDto(
+                i.id, i.name, r.id, r.description, m.score)
+            FROM RequestMatch m
+            JOIN Item i ON i.id = m.id.itemId
+            JOIN ItemRequest r ON r.id = m.id.requestId
+            WHERE m.id.requestId = :requestId AND i.available = true
+            ORDER BY m.score DESC, i.id
+            """)
+    List<RequestMatchDto> findAvailableByRequestId(@Param("requestId") Long requestId);
+}
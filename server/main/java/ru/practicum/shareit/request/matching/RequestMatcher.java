@@ -0,0 +1,265 @@
+package ru.practicum.shareit.request.matching;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.search.ItemSavedEvent;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Подбор открытых запросов для новых и изменённых вещей без requestId.
+ * <p>
+ * Индекс термов открытых запросов строится из БД при старте и дальше обновляется событиями после коммита:
+ * новый запрос добавляется, запрос, на который ответили вещью, удаляется.
+ * Вещи попадают в очередь и обрабатываются пачками в отдельном потоке, так что создание вещи не ждёт подбора.
+ * Результат пишется в request_matches; при переполнении очереди вещь остаётся без подсказок.
+ * Пакетная загрузка не переполняет очередь: перед каждой пачкой она ждёт места в {@link #awaitCapacity}.
+ */
+@Slf4j
+@Component
+public class RequestMatcher {
+    private final ItemRequestRepository requestRepository;
+    private final RequestMatchRepository matchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int pageSize;
+    private final double minScore;
+    private final int maxSuggestions;
+    private final Duration shutdownTimeout;
+    private final BlockingQueue<ItemSavedEvent> queue;
+    private final RequestTermIndex index = new RequestTermIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock spaceLock = new ReentrantLock();
+    private final Condition spaceFreed = spaceLock.newCondition();
+    private volatile Thread worker;
+
+    public RequestMatcher(ItemRequestRepository requestRepository,
+                          RequestMatchRepository matchRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${shareit.requests.matching.enabled:false}") boolean enabled,
+                          @Value("${shareit.requests.matching.queue-capacity:10000}") int queueCapacity,
+                          @Value("${shareit.requests.matching.batch-size:100}") int batchSize,
+                          @Value("${shareit.requests.matching.page-size:5000}") int pageSize,
+                          @Value("${shareit.requests.matching.min-score:0.5}") double minScore,
+                          @Value("${shareit.requests.matching.max-suggestions:5}") int maxSuggestions,
+                          @Value("${shareit.requests.matching.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        this.requestRepository = requestRepository;
+        this.matchRepository = matchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.pageSize = pageSize;
+        this.minScore = minScore;
+        this.maxSuggestions = maxSuggestions;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            worker = Thread.ofPlatform().name("request-matcher").daemon().start(() -> {
+                rebuild();
+                run();
+            });
+        }
+    }
+
+    /**
+     * Останавливает поток подбора до закрытия пула соединений: текущая пачка дописывается
+     * (не дольше shutdownTimeout), вещи, оставшиеся в очереди, остаются без подсказок.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Thread thread = worker;
+        if (thread == null) {
+            return;
+        }
+        worker = null;
+        thread.interrupt();
+        thread.join(shutdownTimeout);
+        if (thread.isAlive()) {
+            log.warn("Поток подбора запросов не остановился за {} мс", shutdownTimeout.toMillis());
+        }
+        int dropped = queue.size();
+        queue.clear();
+        signalSpaceFreed();
+        if (dropped > 0) {
+            log.warn("Подбор запросов остановлен, {} вещей из очереди остались без подсказок", dropped);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.requestId() != null) {
+            // На запрос ответили — больше его не предлагаем
+            lock.writeLock().lock();
+            try {
+                index.remove(event.requestId());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } else if (event.available() && !queue.offer(event)) {
+            log.warn("Очередь подбора запросов переполнена, вещь {} пропущена", event.id());
+        }
+    }
+
+    /**
+     * Ждёт, пока в очереди освободится место для items вещей, но не дольше timeout.
+     * Вызывается до сохранения пачки, а не из слушателя, чтобы ожидание не задевало одиночное создание вещей.
+     */
+    public boolean awaitCapacity(int items, Duration timeout) {
+        if (!enabled || items <= 0) {
+            return true;
+        }
+        int needed = Math.min(items, queue.size() + queue.remainingCapacity());
+        long nanos = timeout.toNanos();
+        spaceLock.lock();
+        try {
+            while (queue.remainingCapacity() < needed) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = spaceFreed.awaitNanos(nanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            spaceLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onRequestCreated(ItemRequestCreatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            index.put(event.toOpenRequest());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // События, пришедшие во время построения, применяются к тому же индексу; запрос, на который ответили
+    // прямо во время чтения его страницы, может остаться в индексе до перезапуска
+    public void rebuild() {
+        long started = System.nanoTime();
+        long lastId = 0;
+        List<OpenRequest> page;
+        do {
+            page = requestRepository.findOpenRequests(lastId, Limit.of(pageSize));
+            lock.writeLock().lock();
+            try {
+                page.forEach(index::put);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == pageSize);
+        log.info("Индекс подбора запросов построен за {} мс: {} открытых запросов",
+                (System.nanoTime() - started) / 1_000_000, indexedRequests());
+    }
+
+    /**
+     * Подбор для пачки вещей: прежние подсказки этих вещей заменяются новыми в одной транзакции.
+     */
+    public void process(List<ItemSavedEvent> batch) {
+        // При нескольких изменениях вещи в пачке считается последнее
+        Map<Long, ItemSavedEvent> latest = new LinkedHashMap<>();
+        batch.forEach(event -> latest.put(event.id(), event));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<RequestMatch> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (ItemSavedEvent item : latest.values()) {
+                var terms = Terms.of(item.name() + " " + item.description());
+                for (RequestTermIndex.ScoredRequest scored : index.match(item.ownerId(), terms, minScore,
+                        maxSuggestions)) {
+                    matches.add(RequestMatch.builder()
+                            .id(new RequestMatchId(item.id(), scored.requestId()))
+                            .score(scored.score())
+                            .created(now)
+                            .build());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            matchRepository.deleteByItemIds(latest.keySet());
+            matchRepository.saveAll(matches);
+        });
+        log.debug("Подбор запросов: {} вещей, {} подсказок", latest.size(), matches.size());
+    }
+
+    public int indexedRequests() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void run() {
+        List<ItemSavedEvent> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            signalSpaceFreed();
+            try {
+                process(batch);
+            } catch (RuntimeException e) {
+                log.error("Не удалось подобрать запросы для {} вещей", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void signalSpaceFreed() {
+        spaceLock.lock();
+        try {
+            spaceFreed.signalAll();
+        } finally {
+            spaceLock.unlock();
+        }
+    }
+}
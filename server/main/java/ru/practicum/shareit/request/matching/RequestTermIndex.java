@@ -0,0 +1,93 @@
+package ru.practicum.shareit.request.matching;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Обратный индекс термов открытых запросов. Не потокобезопасен, синхронизация — в {@link RequestMatcher}.
+ * <p>
+ * Оценка запроса для вещи — доля веса его термов, встретившихся в вещи; вес терма — idf,
+ * так что совпадение по редкому слову («перфоратор») значит больше, чем по частому («нужна»).
+ */
+class RequestTermIndex {
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, IndexedRequest> requests = new HashMap<>();
+
+    void put(OpenRequest request) {
+        remove(request.id());
+        Set<String> terms = Terms.of(request.description());
+        if (terms.isEmpty()) {
+            return;
+        }
+        requests.put(request.id(), new IndexedRequest(request.id(), request.requesterId(), terms));
+        for (String term : terms) {
+            postings.computeIfAbsent(term, key -> new HashSet<>()).add(request.id());
+        }
+    }
+
+    void remove(long requestId) {
+        IndexedRequest removed = requests.remove(requestId);
+        if (removed == null) {
+            return;
+        }
+        for (String term : removed.terms()) {
+            Set<Long> ids = postings.get(term);
+            ids.remove(requestId);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    int size() {
+        return requests.size();
+    }
+
+    /**
+     * Лучшие запросы для вещи с оценкой не ниже minScore. Запросы владельца вещи не предлагаются.
+     */
+    List<ScoredRequest> match(long ownerId, Set<String> itemTerms, double minScore, int limit) {
+        Set<Long> candidates = new HashSet<>();
+        for (String term : itemTerms) {
+            candidates.addAll(postings.getOrDefault(term, Set.of()));
+        }
+        List<ScoredRequest> scored = new ArrayList<>();
+        for (Long candidate : candidates) {
+            IndexedRequest request = requests.get(candidate);
+            if (request.requesterId() == ownerId) {
+                continue;
+            }
+            double matched = 0;
+            double total = 0;
+            for (String term : request.terms()) {
+                double weight = idf(term);
+                total += weight;
+                if (itemTerms.contains(term)) {
+                    matched += weight;
+                }
+            }
+            double score = matched / total;
+            if (score >= minScore) {
+                scored.add(new ScoredRequest(request.id(), score));
+            }
+        }
+        scored.sort(Comparator.comparingDouble(ScoredRequest::score).reversed()
+                .thenComparing(ScoredRequest::requestId, Comparator.reverseOrder()));
+        return scored.size() > limit ? List.copyOf(scored.subList(0, limit)) : scored;
+    }
+
+    private double idf(String term) {
+        return Math.log(1 + (double) requests.size() / postings.get(term).size());
+    }
+
+    record ScoredRequest(long requestId, double score) {
+    }
+
+    private record IndexedRequest(long id, long requesterId, Set<String> terms) {
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.request.matching;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Разбиение текста на термы для сопоставления вещей и запросов.
+ * Грубая основа слова: не длиннее пяти символов и без гласных на конце,
+ * чтобы «дрель», «дрели» и «дрелью» давали один терм. Служебные слова запросов («нужна», «ищу») отбрасываются.
+ */
+final class Terms {
+    private static final int MIN_LENGTH = 3;
+    private static final int STEM_LENGTH = 5;
+    private static final String ENDINGS = "аеёиоуыэюяьйaeiouy";
+    private static final Set<String> STOP = Set.of("нужн", "нужен", "ищу", "ищем", "хоч", "для",
+            "need", "look", "want", "the", "and", "for", "with");
+
+    private Terms() {
+    }
+
+    static Set<String> of(String text) {
+        Set<String> terms = new HashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addStem(terms, text.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static void addStem(Set<String> terms, String word) {
+        if (word.length() < MIN_LENGTH) {
+            return;
+        }
+        String stem = word.toLowerCase(Locale.ROOT);
+        if (stem.length() > STEM_LENGTH) {
+            stem = stem.substring(0, STEM_LENGTH);
+        }
+        int end = stem.length();
+        while (end > MIN_LENGTH && ENDINGS.indexOf(stem.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        stem = stem.substring(0, end);
+        if (!STOP.contains(stem)) {
+            terms.add(stem);
+        }
+    }
+}
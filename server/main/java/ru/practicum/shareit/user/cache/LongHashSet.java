@@ -0,0 +1,100 @@
+package ru.practicum.shareit.user.cache;
+
+import java.util.Arrays;
+
+/**
+ * Множество положительных long без упаковки: открытая адресация с линейным пробированием,
+ * удаление сдвигом назад, 0 — пустая ячейка. Не потокобезопасно.
+ */
+public class LongHashSet {
+    private long[] table;
+    private int mask;
+    private int size;
+
+    public LongHashSet(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(16, initialCapacity - 1)) << 1;
+        table = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    public boolean contains(long key) {
+        for (int i = slot(key); table[i] != 0; i = (i + 1) & mask) {
+            if (table[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean add(long key) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Key must be positive: " + key);
+        }
+        if ((size + 1) * 4L > table.length * 3L) {
+            resize(table.length * 2);
+        }
+        int i = slot(key);
+        while (table[i] != 0) {
+            if (table[i] == key) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = key;
+        size++;
+        return true;
+    }
+
+    public boolean remove(long key) {
+        int i = slot(key);
+        while (table[i] != key) {
+            if (table[i] == 0) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        // Сдвигаем назад ключи цепочки, которые иначе стали бы недостижимы
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (table[j] == 0) {
+                break;
+            }
+            int home = slot(table[j]);
+            boolean reachable = i <= j ? i < home && home <= j : i < home || home <= j;
+            if (!reachable) {
+                table[i] = table[j];
+                i = j;
+            }
+        }
+        table[i] = 0;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        long[] old = table;
+        table = new long[capacity];
+        mask = capacity - 1;
+        size = 0;
+        for (long key : old) {
+            if (key != 0) {
+                add(key);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
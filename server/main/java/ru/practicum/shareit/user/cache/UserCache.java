@@ -0,0 +1,151 @@
+package ru.practicum.shareit.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+
+/**
+ * Кэш пользователей для UserService: ограниченный по размеру и времени кэш сущностей
+ * и множество id, существование которых уже подтверждено.
+ * Наружу отдаются копии, чтобы изменения вызывающего кода не попадали в кэш.
+ * Метрики: cache.gets{cache=users} и shareit.users.existence{result=hit|miss}.
+ */
+@Component
+public class UserCache {
+    private final Cache<Long, User> users;
+    private final int maxIds;
+    private final LongHashSet existing = new LongHashSet(1024);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Counter existenceHits;
+    private final Counter existenceMisses;
+
+    public UserCache(ObjectProvider<MeterRegistry> meterRegistryProvider,
+                     @Value("${shareit.users.cache.max-size:10000}") long maxSize,
+                     @Value("${shareit.users.cache.expire-after-write:PT10M}") Duration expireAfterWrite,
+                     @Value("${shareit.users.existence.max-ids:1000000}") int maxIds) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.maxIds = maxIds;
+        // Без actuator (срезы тестов) метрики пишутся в локальный реестр
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+        this.existenceHits = Counter.builder("shareit.users.existence").tag("result", "hit").register(meterRegistry);
+        this.existenceMisses = Counter.builder("shareit.users.existence").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("shareit.users.existence.size", this, UserCache::existingCount).register(meterRegistry);
+    }
+
+    public Optional<User> getUser(long id, LongFunction<Optional<User>> loader) {
+        User cached = users.get(id, key -> loader.apply(key).map(UserCache::copy).orElse(null));
+        if (cached == null) {
+            return Optional.empty();
+        }
+        markExisting(id);
+        return Optional.of(copy(cached));
+    }
+
+    /**
+     * Проверка существования без загрузки сущности; loader вызывается только при промахе.
+     */
+    public boolean exists(long id, LongPredicate loader) {
+        if (id <= 0) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            if (existing.contains(id)) {
+                existenceHits.increment();
+                return true;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        existenceMisses.increment();
+        if (!loader.test(id)) {
+            return false;
+        }
+        markExisting(id);
+        return true;
+    }
+
+    public void put(User user) {
+        users.put(user.getId(), copy(user));
+        markExisting(user.getId());
+    }
+
+    public void invalidate(long id) {
+        users.invalidate(id);
+    }
+
+    public void remove(long id) {
+        users.invalidate(id);
+        lock.writeLock().lock();
+        try {
+            existing.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Удаления на других экземплярах сюда не доходят, поэтому множество периодически сбрасывается
+    @Scheduled(fixedDelayString = "${shareit.users.cache.expire-after-write:PT10M}")
+    public void expireExisting() {
+        lock.writeLock().lock();
+        try {
+            existing.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markExisting(long id) {
+        lock.readLock().lock();
+        try {
+            if (existing.contains(id)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (existing.size() >= maxIds) {
+                existing.clear();
+            }
+            existing.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int existingCount() {
+        lock.readLock().lock();
+        try {
+            return existing.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static User copy(User user) {
+        return user.toBuilder().build();
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.user.email;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Предварительная проверка занятости email без запроса в БД: «точно свободен» или «возможно занят».
+ * Во втором случае решает запрос existsByEmail, а гонки — ограничение UQ_USER_EMAIL.
+ * Удалённые и заменённые адреса остаются в фильтре; когда их накапливается заметная доля,
+ * фильтр перестраивается из БД.
+ */
+@Slf4j
+@Component
+public class EmailBloomFilter {
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final long expectedEmails;
+    private final double fpp;
+    private final int pageSize;
+    private final Object lock = new Object();
+
+    // null, пока фильтр не построен: тогда каждый адрес «возможно занят»
+    private volatile BloomFilter filter;
+    // Адреса, добавленные во время перестроения
+    private List<String> pending;
+    private long added;
+    private long removed;
+
+    public EmailBloomFilter(UserRepository userRepository,
+                            @Value("${shareit.users.email-filter.enabled:false}") boolean enabled,
+                            @Value("${shareit.users.email-filter.expected-emails:1000000}") long expectedEmails,
+                            @Value("${shareit.users.email-filter.fpp:0.01}") double fpp,
+                            @Value("${shareit.users.email-filter.page-size:5000}") int pageSize) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.expectedEmails = expectedEmails;
+        this.fpp = fpp;
+        this.pageSize = pageSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuildInBackground();
+        }
+    }
+
+    public boolean mightContain(String email) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(email);
+    }
+
+    public void add(String email) {
+        synchronized (lock) {
+            if (pending != null) {
+                pending.add(email);
+            }
+            if (filter != null) {
+                filter.put(email);
+                added++;
+                rebuildIfDegraded();
+            }
+        }
+    }
+
+    public void remove(String email) {
+        synchronized (lock) {
+            if (filter != null) {
+                removed++;
+                rebuildIfDegraded();
+            }
+        }
+    }
+
+    public void rebuild() {
+        synchronized (lock) {
+            if (pending != null) {
+                return;
+            }
+            pending = new ArrayList<>();
+        }
+
+        long started = System.nanoTime();
+        BloomFilter fresh;
+        long count = 0;
+        try {
+            fresh = new BloomFilter(Math.max(expectedEmails, userRepository.count() * 2), fpp);
+            long lastId = 0;
+            List<User> page;
+            do {
+                page = userRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(pageSize));
+                for (User user : page) {
+                    fresh.put(user.getEmail());
+                    lastId = user.getId();
+                }
+                count += page.size();
+            } while (page.size() == pageSize);
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                pending = null;
+            }
+            log.error("Не удалось построить фильтр email, проверка идёт только через БД", e);
+            return;
+        }
+
+        synchronized (lock) {
+            pending.forEach(fresh::put);
+            added = count + pending.size();
+            removed = 0;
+            pending = null;
+            filter = fresh;
+        }
+        log.info("Фильтр email построен за {} мс: адресов {}, {} КБ",
+                (System.nanoTime() - started) / 1_000_000, count, fresh.sizeBytes() / 1024);
+    }
+
+    // Вызывается под lock
+    private void rebuildIfDegraded() {
+        boolean tooManyRemoved = removed > added / 10 + 100;
+        if (pending == null && (tooManyRemoved || added > filter.capacity())) {
+            rebuildInBackground();
+        }
+    }
+
+    private void rebuildInBackground() {
+        Thread.ofPlatform().name("email-bloom-filter").daemon().start(this::rebuild);
+    }
+}
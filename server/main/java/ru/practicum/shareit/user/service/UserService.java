@@ -11,6 +11,9 @@ public interface UserService {
 
     User getUserById(Long id);
 
+    // Для проверок, которым сама сущность не нужна
+    void validateUserExists(Long id);
+
     List<User> getAllUsers();
 
     User updateUser(Long id, UpdateUserDto user);
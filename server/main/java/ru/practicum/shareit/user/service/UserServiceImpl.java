@@ -1,36 +1,56 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exceptions.exception.ConflictException;
 import ru.practicum.shareit.exceptions.exception.NotFoundException;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.email.EmailBloomFilter;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.util.List;
+import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final String EMAIL_CONSTRAINT = "uq_user_email";
+    private static final String UNIQUE_VIOLATION = "23505";
+
     private final UserRepository userRepository;
+    private final EmailBloomFilter emailFilter;
+    private final UserCache userCache;
 
     @Override
     public User createUser(User user) {
-
-        if (userRepository.findByEmail(user.getEmail()).isPresent()) {
+        // Фильтр отвечает «точно свободен» без запроса; иначе проверяем по индексу
+        if (emailFilter.mightContain(user.getEmail()) && userRepository.existsByEmail(user.getEmail())) {
             throw new ConflictException("Email already exists: " + user.getEmail());
         }
-        return userRepository.save(user);
+        User saved = saveUnique(user);
+        emailFilter.add(saved.getEmail());
+        userCache.put(saved);
+        return saved;
     }
 
     @Override
     public User getUserById(Long id) {
-        return userRepository.findById(id)
+        return userCache.getUser(id, userRepository::findById)
                 .orElseThrow(() -> new NotFoundException("User not found with id: " + id));
     }
 
+    @Override
+    public void validateUserExists(Long id) {
+        if (!userCache.exists(id, userRepository::existsById)) {
+            throw new NotFoundException("User not found with id: " + id);
+        }
+    }
+
     @Override
     public List<User> getAllUsers() {
         return userRepository.findAll();
@@ -42,26 +62,56 @@ public class UserServiceImpl implements UserService {
 
         User user = UserMapper.updateUserFields(existingUser,updateUser);
 
-        if (!user.getEmail().equals(existingUser.getEmail())) {
-            if (isEmailExists(user.getEmail(), id)) {
-                throw new ConflictException("Email already exists: " + user.getEmail());
-            }
+        boolean emailChanged = !user.getEmail().equals(existingUser.getEmail());
+        if (emailChanged && emailFilter.mightContain(user.getEmail())
+                && userRepository.existsByEmailAndIdNot(user.getEmail(), id)) {
+            throw new ConflictException("Email already exists: " + user.getEmail());
         }
 
-
-
-        return userRepository.save(user);
+        User saved = saveUnique(user);
+        userCache.invalidate(id);
+        if (emailChanged) {
+            emailFilter.add(saved.getEmail());
+            emailFilter.remove(existingUser.getEmail());
+        }
+        return saved;
     }
 
 
     @Override
     public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+        userRepository.findById(id).ifPresent(user -> {
+            userRepository.delete(user);
+            userCache.remove(id);
+            emailFilter.remove(user.getEmail());
+        });
     }
 
-    private boolean isEmailExists(String email, Long excludeUserId) {
-        return userRepository.findAll().stream()
-                .filter(u -> excludeUserId == null || !u.getId().equals(excludeUserId))
-                .anyMatch(u -> u.getEmail().equals(email));
+    // Одновременные запросы с одним адресом проходят проверку оба, второй останавливает UQ_USER_EMAIL
+    private User saveUnique(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailViolation(e)) {
+                throw new ConflictException("Email already exists: " + user.getEmail());
+            }
+            throw e;
+        }
+    }
+
+    // Имя нарушенного ограничения Hibernate извлекает диалектом БД. PostgreSQL отдаёт uq_user_email,
+    // H2 — индекс ограничения со схемой: PUBLIC.UQ_USER_EMAIL_INDEX_4
+    private static boolean isEmailViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String name = violation.getConstraintName();
+                if (!UNIQUE_VIOLATION.equals(violation.getSQLState()) || name == null) {
+                    return false;
+                }
+                name = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+                return name.equals(EMAIL_CONSTRAINT) || name.startsWith(EMAIL_CONSTRAINT + "_index_");
+            }
+        }
+        return false;
     }
 }
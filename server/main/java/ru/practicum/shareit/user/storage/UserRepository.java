@@ -2,13 +2,23 @@ package ru.practicum.shareit.user.storage;
 
 import ru.practicum.shareit.user.User;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    // Проверки занятости email идут по уникальному индексу UQ_USER_EMAIL
+    boolean existsByEmail(String email);
+
+    boolean existsByEmailAndIdNot(String email, Long id);
+
+    // Постраничное чтение по id для построения EmailBloomFilter
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
@@ -0,0 +1,54 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm
+    ON items USING gin (name gin_trgm_ops) WHERE is_available;
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm
+    ON items USING gin (description gin_trgm_ops) WHERE is_available;
+
+-- Активные бронирования одной вещи не пересекаются, см. BookingIntervalIndex.
+-- ADD CONSTRAINT не знает IF NOT EXISTS, поэтому DO; тело в одинарных кавычках,
+-- чтобы скрипт не разрезался по ';' внутри блока
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO '
+BEGIN
+    ALTER TABLE bookings ADD CONSTRAINT excl_bookings_item_period
+        EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+        WHERE (status IN (''WAITING'', ''APPROVED''));
+EXCEPTION
+    WHEN duplicate_table OR duplicate_object THEN
+        NULL;
+    WHEN exclusion_violation THEN
+        RAISE WARNING ''excl_bookings_item_period не создано: в bookings уже есть пересечения'';
+END';
+
+
+-- Переход с identity на последовательности: identity у id снимается, значение по умолчанию
+-- (для вставок вручную) берётся из последовательности, и последовательность сдвигается за max(id).
+-- Повторный запуск ничего не меняет
+DO '
+DECLARE
+    t TEXT;
+    max_id BIGINT;
+    seq_last BIGINT;
+    seq_called BOOLEAN;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[''users'', ''items'', ''bookings'', ''comments'', ''requests''] LOOP
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = t
+                     AND column_name = ''id'' AND is_identity = ''YES'') THEN
+            EXECUTE format(''ALTER TABLE %I ALTER COLUMN id DROP IDENTITY'', t);
+        END IF;
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = t
+                     AND column_name = ''id'' AND column_default IS NULL) THEN
+            EXECUTE format(''ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)'', t, t || ''_seq'');
+        END IF;
+        EXECUTE format(''SELECT max(id) FROM %I'', t) INTO max_id;
+        EXECUTE format(''SELECT last_value, is_called FROM %I'', t || ''_seq'') INTO seq_last, seq_called;
+        IF max_id IS NOT NULL AND (NOT seq_called OR seq_last < max_id) THEN
+            PERFORM setval(t || ''_seq'', max_id);
+        END IF;
+    END LOOP;
+END';
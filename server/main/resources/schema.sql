@@ -1,5 +1,13 @@
+-- id выдаёт Hibernate блоками по 50 из последовательностей (allocationSize в сущностях),
+-- поэтому вставки идут пачками. INCREMENT BY должен совпадать с allocationSize
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-                                     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                     id BIGINT NOT NULL,
                                      name VARCHAR(255) NOT NULL,
     email VARCHAR(512) NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
@@ -7,7 +15,7 @@ CREATE TABLE IF NOT EXISTS users (
     );
 
 CREATE TABLE IF NOT EXISTS items (
-                                     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                     id BIGINT NOT NULL,
                                      name VARCHAR(255) NOT NULL,
     description VARCHAR(512) NOT NULL,
     is_available BOOLEAN NOT NULL,
@@ -18,7 +26,7 @@ CREATE TABLE IF NOT EXISTS items (
     );
 
 CREATE TABLE IF NOT EXISTS bookings (
-                                        id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                        id BIGINT NOT NULL,
                                         start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
                                         end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
                                         item_id BIGINT NOT NULL,
@@ -30,7 +38,7 @@ CREATE TABLE IF NOT EXISTS bookings (
     );
 
 CREATE TABLE IF NOT EXISTS comments (
-                                        id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                        id BIGINT NOT NULL,
                                         text VARCHAR(512) NOT NULL,
     item_id BIGINT NOT NULL,
     author_id BIGINT NOT NULL,
@@ -41,10 +49,52 @@ CREATE TABLE IF NOT EXISTS comments (
     );
 
 CREATE TABLE IF NOT EXISTS requests (
-                                        id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                        id BIGINT NOT NULL,
                                         description VARCHAR(1000) NOT NULL,
     requester_id BIGINT NOT NULL,
     created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     CONSTRAINT pk_request PRIMARY KEY (id),
     CONSTRAINT fk_request_requester FOREIGN KEY (requester_id) REFERENCES users(id)
-    );
\ No newline at end of file
+    );
+
+-- Последнее и ближайшее подтверждённые бронирования вещи, см. ItemTimeline
+CREATE TABLE IF NOT EXISTS item_timelines (
+    item_id BIGINT NOT NULL,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    last_start TIMESTAMP WITHOUT TIME ZONE,
+    last_end TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_start TIMESTAMP WITHOUT TIME ZONE,
+    next_end TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_item_timeline PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_timeline_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+    );
+
+-- Подсказки: какие открытые запросы может закрыть вещь, см. RequestMatcher
+CREATE TABLE IF NOT EXISTS request_matches (
+    item_id BIGINT NOT NULL,
+    request_id BIGINT NOT NULL,
+    score DOUBLE PRECISION NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_request_match PRIMARY KEY (item_id, request_id),
+    CONSTRAINT fk_request_match_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
+    CONSTRAINT fk_request_match_request FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE CASCADE
+    );
+
+CREATE INDEX IF NOT EXISTS idx_request_matches_request ON request_matches (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_item_timelines_next_start ON item_timelines (next_start);
+
+-- Последнее/следующее бронирование вещи по статусу и дате начала
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+-- Выдача бронирований пользователя по курсору (start_date, id)
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start_id ON bookings (booker_id, start_date DESC, id DESC);
+
+-- Ответы на запросы одной пачкой по странице запросов
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+-- Лента запросов по курсору (created, id)
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created DESC, id DESC);
@@ -9,9 +9,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionsDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.KeysetPage;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -76,6 +81,37 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.id").value(1L));
     }
 
+    @Test
+    void decideBookings_whenValid_thenOutcomePerBooking() throws Exception {
+        when(bookingService.decideBookings(anyList(), eq(1L))).thenReturn(List.of(
+                new BookingDecisionResult(5L, BookingDecisionOutcome.APPROVED, BookingStatus.APPROVED),
+                new BookingDecisionResult(6L, BookingDecisionOutcome.NOT_FOUND, null)));
+        BookingDecisionsDto decisions = BookingDecisionsDto.builder()
+                .decisions(List.of(
+                        BookingDecisionDto.builder().bookingId(5L).approved(true).build(),
+                        BookingDecisionDto.builder().bookingId(6L).approved(false).build()))
+                .build();
+
+        mockMvc.perform(patch("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("APPROVED"))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].outcome").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[1].status").doesNotExist());
+    }
+
+    @Test
+    void decideBookings_whenDecisionWithoutApproved_thenBadRequest() throws Exception {
+        mockMvc.perform(patch("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"decisions\":[{\"bookingId\":5}]}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getBookingById_whenValid_thenSuccess() throws Exception {
         when(bookingService.getBookingById(anyLong(), anyLong()))
@@ -89,29 +125,29 @@ class BookingControllerTest {
 
     @Test
     void getUserBookings_whenValid_thenSuccess() throws Exception {
-        when(bookingService.getUserBookings(anyLong(), any(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingDto));
+        when(bookingService.getUserBookings(anyLong(), any(), any(), anyInt()))
+                .thenReturn(new KeysetPage<>(List.of(bookingDto), "next"));
 
         mockMvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1L)
                         .param("state", "ALL")
-                        .param("from", "0")
                         .param("size", "10"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(KeysetPage.NEXT_CURSOR_HEADER, "next"))
                 .andExpect(jsonPath("$[0].id").value(1L));
     }
 
     @Test
     void getOwnerBookings_whenValid_thenSuccess() throws Exception {
-        when(bookingService.getOwnerBookings(anyLong(), any(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingDto));
+        when(bookingService.getOwnerBookings(anyLong(), any(), any(), anyInt()))
+                .thenReturn(new KeysetPage<>(List.of(bookingDto), "next"));
 
         mockMvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1L)
                         .param("state", "ALL")
-                        .param("from", "0")
                         .param("size", "10"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(KeysetPage.NEXT_CURSOR_HEADER, "next"))
                 .andExpect(jsonPath("$[0].id").value(1L));
     }
 }
@@ -0,0 +1,200 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.interval.BookedInterval;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
+import ru.practicum.shareit.booking.interval.FreeSlot;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exceptions.exception.ConflictException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex intervalIndex;
+
+    private final LocalDateTime day = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+    @BeforeEach
+    void setUp() {
+        intervalIndex = new BookingIntervalIndex(bookingRepository, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void reserve_whenOverlapsStoredBooking_thenConflict() {
+        stubDatabase(new BookedInterval(day.plusHours(10), day.plusHours(12)));
+
+        assertThrows(ConflictException.class, () -> intervalIndex.reserve(1L, day.plusHours(11), day.plusHours(13)));
+        assertThrows(ConflictException.class, () -> intervalIndex.reserve(1L, day.plusHours(9), day.plusHours(14)));
+        // Стык концов пересечением не считается
+        assertDoesNotThrow(() -> intervalIndex.reserve(1L, day.plusHours(12), day.plusHours(13)));
+        assertDoesNotThrow(() -> intervalIndex.reserve(1L, day.plusHours(8), day.plusHours(10)));
+        assertThrows(ConflictException.class, () -> intervalIndex.reserve(1L, day.plusHours(9), day.plusHours(11)));
+        // Загрузка и по перепроверке на каждое пересечение после неё; свободные интервалы БД не трогают
+        verify(bookingRepository, times(3)).findActiveIntervals(eq(1L), anyList(), any());
+    }
+
+    @Test
+    void reserve_whenCachedIntervalFreedElsewhere_thenDatabaseRecheckedAndReserved() {
+        stubDatabase(new BookedInterval(day.plusHours(10), day.plusHours(12)));
+        intervalIndex.freeSlots(1L, day, day.plusDays(1));
+        // Другой экземпляр отклонил бронирование — в БД интервала больше нет
+        stubDatabase();
+
+        assertDoesNotThrow(() -> intervalIndex.reserve(1L, day.plusHours(11), day.plusHours(13)));
+        verify(bookingRepository, times(2)).findActiveIntervals(eq(1L), anyList(), any());
+    }
+
+    @Test
+    void reserve_whenUncommittedReservationOverlaps_thenConflictSurvivesReload() {
+        stubDatabase(new BookedInterval(day.plusHours(20), day.plusHours(22)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            intervalIndex.reserve(1L, day.plusHours(10), day.plusHours(12));
+            // Пересечение с прочитанным интервалом перечитывает вещь, но незафиксированное занятие остаётся
+            assertThrows(ConflictException.class,
+                    () -> intervalIndex.reserve(1L, day.plusHours(11), day.plusHours(21)));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        stubDatabase(new BookedInterval(day.plusHours(10), day.plusHours(12)),
+                new BookedInterval(day.plusHours(20), day.plusHours(22)));
+        assertThrows(ConflictException.class, () -> intervalIndex.reserve(1L, day.plusHours(11), day.plusHours(13)));
+    }
+
+    @Test
+    void reserve_whenTransactionRolledBack_thenIntervalFreed() {
+        stubDatabase();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            intervalIndex.reserve(1L, day, day.plusDays(1));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertDoesNotThrow(() -> intervalIndex.reserve(1L, day, day.plusDays(1)));
+    }
+
+    @Test
+    void releaseAfterCommit_whenCommitted_thenIntervalFreedOnlyAfterCommit() {
+        // До коммита отказа бронирование в БД ещё активно
+        stubDatabase(new BookedInterval(day, day.plusDays(1)));
+        intervalIndex.freeSlots(1L, day, day.plusDays(2));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            intervalIndex.releaseAfterCommit(1L, day, day.plusDays(1));
+            assertThrows(ConflictException.class, () -> intervalIndex.reserve(1L, day, day.plusHours(1)));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertDoesNotThrow(() -> intervalIndex.reserve(1L, day, day.plusHours(1)));
+    }
+
+    @Test
+    void reserve_whenSimultaneousAttempts_thenExactlyOneWins() throws Exception {
+        stubDatabase();
+        int attempts = 32;
+        CountDownLatch startLine = new CountDownLatch(1);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            int shift = i % 4;
+            tasks.add(() -> {
+                startLine.await();
+                // Каждая попытка в своей транзакции, которая ещё не зафиксирована
+                TransactionSynchronizationManager.initSynchronization();
+                try {
+                    intervalIndex.reserve(1L, day.plusHours(shift), day.plusHours(shift + 6));
+                    return true;
+                } catch (ConflictException e) {
+                    return false;
+                } finally {
+                    TransactionSynchronizationManager.clearSynchronization();
+                }
+            });
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<Boolean>> results = tasks.stream().map(executor::submit).toList();
+            startLine.countDown();
+            long won = 0;
+            for (Future<Boolean> result : results) {
+                won += result.get() ? 1 : 0;
+            }
+            assertEquals(1, won);
+        }
+    }
+
+    @Test
+    void invalidate_thenReloadedFromDatabase() {
+        stubDatabase();
+        intervalIndex.reserve(1L, day, day.plusDays(1));
+
+        intervalIndex.invalidate(1L);
+        stubDatabase(new BookedInterval(day.plusDays(2), day.plusDays(3)));
+
+        assertDoesNotThrow(() -> intervalIndex.reserve(1L, day, day.plusDays(1)));
+        assertThrows(ConflictException.class, () -> intervalIndex.reserve(1L, day.plusDays(2), day.plusDays(3)));
+    }
+
+    @Test
+    void freeSlots_thenGapsBetweenBookingsClippedToWindow() {
+        stubDatabase(
+                new BookedInterval(day.plusHours(8), day.plusHours(10)),
+                new BookedInterval(day.plusHours(12), day.plusHours(13)),
+                new BookedInterval(day.plusHours(13), day.plusHours(15)),
+                new BookedInterval(day.plusHours(20), day.plusHours(30)));
+
+        assertEquals(List.of(
+                        new FreeSlot(day.plusHours(10), day.plusHours(12)),
+                        new FreeSlot(day.plusHours(15), day.plusHours(20))),
+                intervalIndex.freeSlots(1L, day.plusHours(9), day.plusHours(22)));
+        assertEquals(List.of(new FreeSlot(day, day.plusHours(8))),
+                intervalIndex.freeSlots(1L, day, day.plusHours(9)));
+        assertTrue(intervalIndex.freeSlots(1L, day.plusHours(21), day.plusHours(29)).isEmpty());
+        assertEquals(List.of(
+                        new FreeSlot(day.plusHours(16), day.plusHours(20)),
+                        new FreeSlot(day.plusHours(30), day.plusHours(40))),
+                intervalIndex.freeSlots(1L, day.plusHours(16), day.plusHours(40)));
+    }
+
+    private void stubDatabase(BookedInterval... intervals) {
+        when(bookingRepository.findActiveIntervals(eq(1L), anyList(), any())).thenReturn(List.of(intervals));
+    }
+}
@@ -0,0 +1,298 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.storage.BookingDecisionTarget;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.config.PersistenceConfig;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.platform=h2",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(PersistenceConfig.class)
+class BookingRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private User owner;
+    private User booker;
+    private Item drill;
+    private Item saw;
+    private Item ladder;
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(User.builder().name("Owner").email("owner@email.com").build());
+        booker = em.persist(User.builder().name("Booker").email("booker@email.com").build());
+        drill = em.persist(item("Дрель"));
+        saw = em.persist(item("Пила"));
+        ladder = em.persist(item("Стремянка"));
+    }
+
+    @Test
+    void findLastAndNextBookingsForItems_thenChosenByStartNotById() {
+        Booking lastDrill = em.persist(booking(drill, now.minusDays(5), BookingStatus.APPROVED));
+        // Создано позже, но началось раньше — не должно считаться последним
+        em.persist(booking(drill, now.minusDays(10), BookingStatus.APPROVED));
+        em.persist(booking(drill, now.minusDays(1), BookingStatus.REJECTED));
+        em.persist(booking(drill, now.plusDays(10), BookingStatus.APPROVED));
+        Booking nextDrill = em.persist(booking(drill, now.plusDays(3), BookingStatus.APPROVED));
+        em.persist(booking(drill, now.plusDays(1), BookingStatus.WAITING));
+        Booking nextSaw = em.persist(booking(saw, now.plusDays(2), BookingStatus.APPROVED));
+        em.flush();
+        em.clear();
+
+        List<Long> itemIds = List.of(drill.getId(), saw.getId(), ladder.getId());
+        Map<Long, Long> last = byItem(bookingRepository.findLastBookingsForItems(itemIds, now, BookingStatus.APPROVED));
+        Map<Long, Long> next = byItem(bookingRepository.findNextBookingsForItems(itemIds, now, BookingStatus.APPROVED));
+
+        assertEquals(Map.of(drill.getId(), lastDrill.getId()), last);
+        assertEquals(Map.of(drill.getId(), nextDrill.getId(), saw.getId(), nextSaw.getId()), next);
+    }
+
+    @Test
+    void findNextBookingsForItems_whenOnlyNotApproved_thenEmpty() {
+        em.persist(booking(ladder, now.plusDays(1), BookingStatus.WAITING));
+        em.persist(booking(ladder, now.plusDays(2), BookingStatus.REJECTED));
+        em.flush();
+
+        assertTrue(bookingRepository.findNextBookingsForItems(
+                List.of(ladder.getId()), now, BookingStatus.APPROVED).isEmpty());
+    }
+
+    @Test
+    void findItemIdsBookedBetween_thenOnlyApprovedOverlapping() {
+        // Без долей секунды: иначе стык может поменяться при округлении в БД
+        LocalDateTime start = now.plusDays(10).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = start.plusDays(2);
+        em.persist(booking(drill, start.plusDays(1), BookingStatus.APPROVED));
+        em.persist(booking(saw, start.plusDays(1), BookingStatus.WAITING));
+        // Стык с окном — не пересечение
+        em.persist(booking(ladder, end, BookingStatus.APPROVED));
+        em.flush();
+
+        assertEquals(List.of(drill.getId()), bookingRepository.findItemIdsBookedBetween(
+                List.of(drill.getId(), saw.getId(), ladder.getId()), start, end, BookingStatus.APPROVED));
+    }
+
+    @Test
+    void findBookingPage_whenWalkingByCursor_thenEveryBookingOnceInOrder() {
+        // Одинаковое начало у части бронирований: порядок и курсор держатся на id
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            LocalDateTime start = now.minusDays(i / 2).truncatedTo(ChronoUnit.SECONDS);
+            expected.add(em.persist(booking(em.persist(item("Вещь " + i)), start, BookingStatus.APPROVED)).getId());
+        }
+        em.flush();
+        expected.sort(Comparator.comparing((Long id) -> em.find(Booking.class, id).getStart())
+                .thenComparing(Comparator.naturalOrder()).reversed());
+
+        List<Long> walked = new ArrayList<>();
+        KeysetCursor cursor = null;
+        int pages = 0;
+        do {
+            KeysetPage<BookingDto> page = bookingRepository.findBookingPage(
+                    BookingRole.BOOKER, booker.getId(), BookingState.ALL, cursor, 3, now);
+            page.content().forEach(booking -> walked.add(booking.getId()));
+            cursor = page.nextCursor() != null ? KeysetCursor.decode(page.nextCursor()) : null;
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, walked);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void findBookingPage_whenStateFilter_thenOnlyMatching() {
+        Booking current = em.persist(booking(drill, now.minusHours(2), BookingStatus.APPROVED));
+        Booking future = em.persist(booking(saw, now.plusDays(2), BookingStatus.WAITING));
+        Booking rejected = em.persist(booking(ladder, now.plusDays(5), BookingStatus.REJECTED));
+        Booking past = em.persist(booking(drill, now.minusDays(5), BookingStatus.APPROVED));
+        em.flush();
+
+        assertEquals(List.of(current.getId()), ids(BookingRole.OWNER, owner.getId(), BookingState.CURRENT));
+        assertEquals(List.of(past.getId()), ids(BookingRole.BOOKER, booker.getId(), BookingState.PAST));
+        assertEquals(List.of(rejected.getId(), future.getId()),
+                ids(BookingRole.BOOKER, booker.getId(), BookingState.FUTURE));
+        assertEquals(List.of(future.getId()), ids(BookingRole.OWNER, owner.getId(), BookingState.WAITING));
+        assertEquals(List.of(rejected.getId()), ids(BookingRole.BOOKER, booker.getId(), BookingState.REJECTED));
+        assertTrue(ids(BookingRole.OWNER, booker.getId(), BookingState.ALL).isEmpty());
+    }
+
+    @Test
+    void findBookingPage_thenOneStatementPerPageForEveryStateAndRole() {
+        // Разные арендаторы и вещи: с ленивыми связями здесь было бы N+1
+        for (int i = 0; i < 120; i++) {
+            User someone = em.persist(User.builder().name("Booker " + i).email(i + "@email.com").build());
+            Item thing = em.persist(item("Вещь " + i));
+            em.persist(Booking.builder()
+                    .item(thing)
+                    .booker(someone)
+                    .start(now.minusDays(i))
+                    .end(now.plusDays(1))
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+        em.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (BookingRole role : BookingRole.values()) {
+            for (BookingState state : BookingState.values()) {
+                em.clear();
+                statistics.clear();
+                bookingRepository.findBookingPage(role, owner.getId(), state, null, 100, now);
+                assertEquals(1, statistics.getPrepareStatementCount(), role + " " + state);
+            }
+        }
+
+        em.clear();
+        statistics.clear();
+        KeysetPage<BookingDto> page = bookingRepository.findBookingPage(
+                BookingRole.OWNER, owner.getId(), BookingState.ALL, null, 100, now);
+        assertEquals(100, page.content().size());
+        assertNotNull(page.nextCursor());
+        assertEquals("Booker 0", page.content().get(0).getBooker().getName());
+        assertEquals("Вещь 0", page.content().get(0).getItem().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private List<Long> ids(BookingRole role, Long userId, BookingState state) {
+        return bookingRepository.findBookingPage(role, userId, state, null, 10, now).content().stream()
+                .map(BookingDto::getId)
+                .toList();
+    }
+
+    private static Map<Long, Long> byItem(List<Booking> bookings) {
+        return bookings.stream().collect(Collectors.toMap(b -> b.getItem().getId(), Booking::getId));
+    }
+
+    @Test
+    void findDecisionTargetsForUpdate_thenItemOwnerAndStatus() {
+        Booking waiting = em.persist(booking(drill, now.plusDays(1), BookingStatus.WAITING));
+        Booking approved = em.persist(booking(saw, now.plusDays(2), BookingStatus.APPROVED));
+        em.flush();
+        em.clear();
+
+        List<BookingDecisionTarget> targets = bookingRepository.findDecisionTargetsForUpdate(
+                List.of(waiting.getId(), approved.getId(), -1L));
+
+        assertEquals(2, targets.size());
+        BookingDecisionTarget target = targets.stream()
+                .filter(t -> t.id().equals(waiting.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(drill.getId(), target.itemId());
+        assertEquals(owner.getId(), target.ownerId());
+        assertEquals(BookingStatus.WAITING, target.status());
+    }
+
+    @Test
+    void applyDecisions_thenOnlyWaitingBookingsChanged() {
+        Booking toApprove = em.persist(booking(drill, now.plusDays(1), BookingStatus.WAITING));
+        Booking toReject = em.persist(booking(saw, now.plusDays(1), BookingStatus.WAITING));
+        Booking decided = em.persist(booking(ladder, now.plusDays(1), BookingStatus.REJECTED));
+        em.flush();
+        em.clear();
+
+        int updated = bookingRepository.applyDecisions(
+                List.of(toApprove.getId(), toReject.getId(), decided.getId()), List.of(toApprove.getId(), decided.getId()),
+                BookingStatus.APPROVED, BookingStatus.REJECTED, BookingStatus.WAITING);
+
+        assertEquals(2, updated);
+        assertEquals(BookingStatus.APPROVED, em.find(Booking.class, toApprove.getId()).getStatus());
+        assertEquals(BookingStatus.REJECTED, em.find(Booking.class, toReject.getId()).getStatus());
+        assertEquals(BookingStatus.REJECTED, em.find(Booking.class, decided.getId()).getStatus());
+    }
+
+    @Test
+    void applyDecisions_whenOneDecidedBeforeBatch_thenOnlyLockedWaitingUpdated() {
+        Booking first = em.persist(booking(drill, now.plusDays(1), BookingStatus.WAITING));
+        Booking second = em.persist(booking(saw, now.plusDays(1), BookingStatus.WAITING));
+        em.flush();
+        // Другая транзакция подтвердила second до того, как пакет прочитал строки
+        em.getEntityManager().createQuery("UPDATE Booking b SET b.status = :status WHERE b.id = :id")
+                .setParameter("status", BookingStatus.APPROVED)
+                .setParameter("id", second.getId())
+                .executeUpdate();
+        em.clear();
+
+        List<Long> batch = List.of(first.getId(), second.getId());
+        List<Long> waiting = bookingRepository.findDecisionTargetsForUpdate(batch).stream()
+                .filter(target -> target.status() == BookingStatus.WAITING)
+                .map(BookingDecisionTarget::id)
+                .toList();
+        int updated = bookingRepository.applyDecisions(waiting, waiting,
+                BookingStatus.APPROVED, BookingStatus.REJECTED, BookingStatus.WAITING);
+
+        assertEquals(List.of(first.getId()), waiting);
+        assertEquals(1, updated);
+        assertEquals(BookingStatus.APPROVED, em.find(Booking.class, first.getId()).getStatus());
+        assertEquals(BookingStatus.APPROVED, em.find(Booking.class, second.getId()).getStatus());
+    }
+
+    @Test
+    void applyDecisions_whenNothingApproved_thenAllRejected() {
+        Booking first = em.persist(booking(drill, now.plusDays(1), BookingStatus.WAITING));
+        Booking second = em.persist(booking(saw, now.plusDays(1), BookingStatus.WAITING));
+        em.flush();
+        em.clear();
+
+        int updated = bookingRepository.applyDecisions(List.of(first.getId(), second.getId()), List.of(),
+                BookingStatus.APPROVED, BookingStatus.REJECTED, BookingStatus.WAITING);
+
+        assertEquals(2, updated);
+        assertEquals(BookingStatus.REJECTED, em.find(Booking.class, first.getId()).getStatus());
+        assertEquals(BookingStatus.REJECTED, em.find(Booking.class, second.getId()).getStatus());
+    }
+
+    private Item item(String name) {
+        return Item.builder()
+                .name(name)
+                .description(name)
+                .available(true)
+                .owner(owner)
+                .build();
+    }
+
+    private Booking booking(Item item, LocalDateTime start, BookingStatus status) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(status)
+                .build();
+    }
+}
@@ -5,21 +5,31 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
-import org.springframework.data.domain.Pageable;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.storage.BookingDecisionTarget;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exceptions.exception.ConflictException;
 import ru.practicum.shareit.exceptions.exception.NoAccessException;
 import ru.practicum.shareit.exceptions.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.timeline.ItemTimelineService;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -27,6 +37,8 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +53,12 @@ class BookingServiceImplTest {
     @Mock
     private ItemService itemService;
 
+    @Mock
+    private ItemTimelineService timelineService;
+
+    @Mock
+    private BookingIntervalIndex intervalIndex;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -92,7 +110,7 @@ class BookingServiceImplTest {
     void createBooking_whenValid_thenSuccess() {
         when(userService.getUserById(anyLong())).thenReturn(booker);
         when(itemService.getItemEntityById(anyLong())).thenReturn(item);
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(booking);
 
         BookingDto result = bookingService.createBooking(bookingRequestDto, booker.getId());
 
@@ -100,7 +118,44 @@ class BookingServiceImplTest {
         assertEquals(booking.getId(), result.getId());
         assertEquals(booking.getStart(), result.getStart());
         assertEquals(booking.getEnd(), result.getEnd());
-        verify(bookingRepository).save(any(Booking.class));
+        verify(intervalIndex).reserve(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd());
+        verify(bookingRepository).saveAndFlush(any(Booking.class));
+    }
+
+    @Test
+    void createBooking_whenIntervalTaken_thenConflictWithoutInsert() {
+        when(userService.getUserById(anyLong())).thenReturn(booker);
+        when(itemService.getItemEntityById(anyLong())).thenReturn(item);
+        doThrow(new ConflictException("Item is already booked for these dates"))
+                .when(intervalIndex).reserve(anyLong(), any(), any());
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(bookingRequestDto, booker.getId()));
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createBooking_whenDatabaseRejectsOverlap_thenConflictAndIndexInvalidated() {
+        when(userService.getUserById(anyLong())).thenReturn(booker);
+        when(itemService.getItemEntityById(anyLong())).thenReturn(item);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(new DataIntegrityViolationException(
+                "excl_bookings_item_period", new SQLException("conflicting key value", "23P01")));
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(bookingRequestDto, booker.getId()));
+        verify(intervalIndex).invalidate(item.getId());
+    }
+
+    @Test
+    void createBooking_whenOtherIntegrityViolation_thenRethrown() {
+        when(userService.getUserById(anyLong())).thenReturn(booker);
+        when(itemService.getItemEntityById(anyLong())).thenReturn(item);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(new DataIntegrityViolationException(
+                "fk_booking_booker", new SQLException("foreign key", "23503")));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> bookingService.createBooking(bookingRequestDto, booker.getId()));
+        verify(intervalIndex, never()).invalidate(anyLong());
     }
 
     @Test
@@ -126,12 +181,25 @@ class BookingServiceImplTest {
     @Test
     void updateBookingStatus_whenApproved_thenSuccess() {
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(booking);
 
         BookingDto result = bookingService.updateBookingStatus(1L, true, owner.getId());
 
         assertEquals(BookingStatus.APPROVED, booking.getStatus());
-        verify(bookingRepository).save(booking);
+        verify(bookingRepository).saveAndFlush(booking);
+        verify(timelineService).refreshTimeline(item.getId());
+    }
+
+    @Test
+    void updateBookingStatus_whenRejected_thenTimelineNotTouched() {
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(booking);
+
+        bookingService.updateBookingStatus(1L, false, owner.getId());
+
+        assertEquals(BookingStatus.REJECTED, booking.getStatus());
+        verifyNoInteractions(timelineService);
+        verify(intervalIndex).releaseAfterCommit(item.getId(), booking.getStart(), booking.getEnd());
     }
 
     @Test
@@ -151,6 +219,74 @@ class BookingServiceImplTest {
                 () -> bookingService.updateBookingStatus(1L, true, owner.getId()));
     }
 
+    @Test
+    void decideBookings_thenOneUpdateAndOutcomePerBookingInRequestOrder() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(bookingRepository.findDecisionTargetsForUpdate(any())).thenReturn(List.of(
+                new BookingDecisionTarget(10L, 1L, 2L, BookingStatus.WAITING, start, start.plusDays(1)),
+                new BookingDecisionTarget(11L, 1L, 2L, BookingStatus.WAITING, start.plusDays(2), start.plusDays(3)),
+                new BookingDecisionTarget(12L, 3L, 2L, BookingStatus.WAITING, start, start.plusDays(1)),
+                new BookingDecisionTarget(13L, 4L, 9L, BookingStatus.WAITING, start, start.plusDays(1)),
+                new BookingDecisionTarget(14L, 1L, 2L, BookingStatus.APPROVED, start, start.plusDays(1))));
+        when(bookingRepository.applyDecisions(List.of(10L, 11L, 12L), List.of(10L, 11L),
+                BookingStatus.APPROVED, BookingStatus.REJECTED, BookingStatus.WAITING)).thenReturn(3);
+
+        List<BookingDecisionResult> results = bookingService.decideBookings(List.of(
+                decision(10L, true), decision(11L, true), decision(12L, false), decision(13L, true),
+                decision(14L, false), decision(15L, true)), 2L);
+
+        assertEquals(List.of(
+                new BookingDecisionResult(10L, BookingDecisionOutcome.APPROVED, BookingStatus.APPROVED),
+                new BookingDecisionResult(11L, BookingDecisionOutcome.APPROVED, BookingStatus.APPROVED),
+                new BookingDecisionResult(12L, BookingDecisionOutcome.REJECTED, BookingStatus.REJECTED),
+                new BookingDecisionResult(13L, BookingDecisionOutcome.NO_ACCESS, null),
+                new BookingDecisionResult(14L, BookingDecisionOutcome.ALREADY_DECIDED, BookingStatus.APPROVED),
+                new BookingDecisionResult(15L, BookingDecisionOutcome.NOT_FOUND, null)), results);
+        verify(timelineService).refreshTimelines(List.of(1L));
+        verify(intervalIndex).releaseAfterCommit(3L, start, start.plusDays(1));
+        verify(bookingRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void decideBookings_whenDecidedBeforeLock_thenAlreadyDecidedWithoutRefresh() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        // Бронирование 11 параллельно подтвердили тем же решением до того, как пакет заблокировал строки
+        when(bookingRepository.findDecisionTargetsForUpdate(any())).thenReturn(List.of(
+                new BookingDecisionTarget(10L, 1L, 2L, BookingStatus.WAITING, start, start.plusDays(1)),
+                new BookingDecisionTarget(11L, 3L, 2L, BookingStatus.APPROVED, start, start.plusDays(1))));
+        when(bookingRepository.applyDecisions(List.of(10L), List.of(10L),
+                BookingStatus.APPROVED, BookingStatus.REJECTED, BookingStatus.WAITING)).thenReturn(1);
+
+        List<BookingDecisionResult> results = bookingService.decideBookings(
+                List.of(decision(10L, true), decision(11L, true)), 2L);
+
+        assertEquals(BookingDecisionOutcome.APPROVED, results.get(0).outcome());
+        assertEquals(new BookingDecisionResult(11L, BookingDecisionOutcome.ALREADY_DECIDED, BookingStatus.APPROVED),
+                results.get(1));
+        verify(timelineService).refreshTimelines(List.of(1L));
+        verify(bookingRepository).findDecisionTargetsForUpdate(any());
+    }
+
+    @Test
+    void decideBookings_whenLockedRowsNotAllUpdated_thenThrowException() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(bookingRepository.findDecisionTargetsForUpdate(any())).thenReturn(List.of(
+                new BookingDecisionTarget(10L, 1L, 2L, BookingStatus.WAITING, start, start.plusDays(1)),
+                new BookingDecisionTarget(11L, 3L, 2L, BookingStatus.WAITING, start, start.plusDays(1))));
+        when(bookingRepository.applyDecisions(any(), any(), any(), any(), any())).thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> bookingService.decideBookings(
+                List.of(decision(10L, true), decision(11L, false)), 2L));
+        verifyNoInteractions(timelineService, intervalIndex);
+    }
+
+    @Test
+    void decideBookings_whenBookingRepeated_thenThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.decideBookings(List.of(decision(10L, true), decision(10L, false)), 2L));
+        verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void getBookingById_whenBooker_thenSuccess() {
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
@@ -171,28 +307,39 @@ class BookingServiceImplTest {
 
     @Test
     void getUserBookings_whenAllState_thenSuccess() {
-        when(userService.getUserById(anyLong())).thenReturn(booker);
-        when(bookingRepository.findByBookerIdOrderByStartDesc(anyLong(), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findBookingPage(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.ALL),
+                isNull(), eq(10), any(LocalDateTime.class)))
+                .thenReturn(new KeysetPage<>(List.of(BookingMapper.toBookingDto(booking)), null));
 
-        List<BookingDto> result = bookingService.getUserBookings(
-                booker.getId(), BookingState.ALL, 0, 10);
+        KeysetPage<BookingDto> result = bookingService.getUserBookings(
+                booker.getId(), BookingState.ALL, null, 10);
 
         assertNotNull(result);
-        assertEquals(1, result.size());
+        assertEquals(1, result.content().size());
+        assertNull(result.nextCursor());
     }
 
     @Test
-    void getOwnerBookings_whenCurrentState_thenSuccess() {
-        when(userService.getUserById(anyLong())).thenReturn(owner);
-        when(bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+    void getOwnerBookings_whenCursorGiven_thenDecodedAndPassed() {
+        KeysetCursor cursor = new KeysetCursor(booking.getStart(), booking.getId());
+        when(bookingRepository.findBookingPage(eq(BookingRole.OWNER), eq(owner.getId()), eq(BookingState.CURRENT),
+                eq(cursor), eq(1), any(LocalDateTime.class)))
+                .thenReturn(new KeysetPage<>(List.of(), null));
 
-        List<BookingDto> result = bookingService.getOwnerBookings(
-                owner.getId(), BookingState.CURRENT, 0, 10);
+        KeysetPage<BookingDto> result = bookingService.getOwnerBookings(
+                owner.getId(), BookingState.CURRENT, cursor.encode(), 1);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
+        assertTrue(result.content().isEmpty());
+    }
+
+    @Test
+    void getUserBookings_whenCursorMalformed_thenThrowException() {
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.getUserBookings(booker.getId(), BookingState.ALL, "не-курсор", 10));
+    }
+
+    private static BookingDecisionDto decision(Long bookingId, boolean approved) {
+        return BookingDecisionDto.builder().bookingId(bookingId).approved(approved).build();
     }
 }
@@ -0,0 +1,212 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.config.PersistenceConfig;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.timeline.ItemTimeline;
+import ru.practicum.shareit.item.timeline.ItemTimelineRepository;
+import ru.practicum.shareit.user.User;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.sql.init.platform=h2")
+@Import({PersistenceConfig.class, ItemBatchInsertTest.JdbcCountingConfig.class})
+class ItemBatchInsertTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private JdbcCounter jdbc;
+
+    @Autowired
+    private ItemTimelineRepository timelineRepository;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(User.builder().name("Owner").email("owner@email.com").build());
+        booker = em.persist(User.builder().name("Booker").email("booker@email.com").build());
+        em.flush();
+        jdbc.reset();
+    }
+
+    @Test
+    void flush_whenManyItems_thenInsertedInBatchesOfFifty() {
+        for (int i = 0; i < 120; i++) {
+            em.persist(item(i));
+        }
+        em.flush();
+
+        assertEquals(120, jdbc.rows("insert into items"));
+        assertEquals(3, jdbc.batches("insert into items"));
+    }
+
+    @Test
+    void flush_whenItemsAndBookingsInterleaved_thenOneBatchPerTable() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 40; i++) {
+            Item item = em.persist(item(i));
+            em.persist(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .start(start)
+                    .end(start.plusDays(1))
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+        em.flush();
+
+        assertEquals(1, jdbc.batches("insert into items"));
+        assertEquals(1, jdbc.batches("insert into bookings"));
+        assertEquals(40, jdbc.rows("insert into bookings"));
+    }
+
+    @Test
+    void saveAll_whenNewTimelines_thenInsertedInBatchesWithoutSelect() {
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            itemIds.add(em.persist(item(i)).getId());
+        }
+        em.flush();
+        jdbc.reset();
+
+        timelineRepository.saveAll(itemIds.stream().map(ItemTimeline::empty).toList());
+        em.flush();
+
+        assertEquals(0, jdbc.rows("select"));
+        assertEquals(60, jdbc.rows("insert into item_timelines"));
+        assertEquals(2, jdbc.batches("insert into item_timelines"));
+    }
+
+    private Item item(int index) {
+        return Item.builder()
+                .name("Дрель " + index)
+                .description("Ударная дрель")
+                .available(true)
+                .owner(owner)
+                .build();
+    }
+
+    /**
+     * Считает выполнения и addBatch, а отдельно executeBatch по началу SQL,
+     * чтобы проверить, что вставки действительно идут пачками.
+     */
+    static class JdbcCounter {
+        private final Map<String, AtomicInteger> rows = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> batches = new ConcurrentHashMap<>();
+
+        int rows(String sqlPrefix) {
+            return count(rows, sqlPrefix);
+        }
+
+        int batches(String sqlPrefix) {
+            return count(batches, sqlPrefix);
+        }
+
+        void reset() {
+            rows.clear();
+            batches.clear();
+        }
+
+        DataSource wrap(DataSource dataSource) {
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return connection(super.getConnection());
+                }
+            };
+        }
+
+        private Connection connection(Connection target) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(target, method, args);
+                        if (method.getName().equals("prepareStatement")) {
+                            return statement((PreparedStatement) result, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement statement(PreparedStatement target, String sql) {
+            String key = sql.toLowerCase(Locale.ROOT);
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "addBatch", "executeUpdate", "executeQuery" -> rows.computeIfAbsent(key, k -> new AtomicInteger())
+                                    .incrementAndGet();
+                            case "executeBatch" -> batches.computeIfAbsent(key, k -> new AtomicInteger())
+                                    .incrementAndGet();
+                            default -> {
+                            }
+                        }
+                        return invoke(target, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private static int count(Map<String, AtomicInteger> counts, String sqlPrefix) {
+            return counts.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(sqlPrefix))
+                    .mapToInt(entry -> entry.getValue().get())
+                    .sum();
+        }
+    }
+
+    @TestConfiguration
+    static class JdbcCountingConfig {
+
+        @Bean
+        JdbcCounter jdbcCounter() {
+            return new JdbcCounter();
+        }
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor(ObjectProvider<JdbcCounter> counter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? counter.getObject().wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.exceptions.exception.NotFoundException;
+import ru.practicum.shareit.item.bulk.BulkImportSummary;
+import ru.practicum.shareit.item.bulk.BulkItemFormat;
+import ru.practicum.shareit.item.bulk.BulkItemResult;
+import ru.practicum.shareit.item.bulk.ItemBulkImporter;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.matching.RequestMatcher;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBulkImporterTest {
+    private static final long OWNER_ID = 7L;
+
+    @Mock
+    private ItemService itemService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private RequestMatcher requestMatcher;
+
+    private ValidatorFactory validatorFactory;
+    private ItemBulkImporter importer;
+
+    private final List<List<BulkItemResult>> flushed = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong(100);
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        importer = new ItemBulkImporter(itemService, userService, validatorFactory.getValidator(),
+                Jackson2ObjectMapperBuilder.json().build(), entityManager, requestMatcher, 2, 300, Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void importItems_whenNdjson_thenValidLinesSavedInBatchesAndErrorsReported() throws IOException {
+        assignIds();
+        String body = """
+                {"name":"Дрель","description":"Ударная","available":true}
+                {"name":"","description":"Пустое название","available":true}
+
+                {"name":"Пила","description":"Цепная","available":false,"requestId":5}
+                {"name":"Лестница",
+                {"name":"Молоток","description":"Слесарный","available":true}
+                """;
+
+        BulkImportSummary summary = importer.importItems(OWNER_ID, BulkItemFormat.NDJSON, stream(body), flushed::add);
+
+        assertEquals(new BulkImportSummary(3, 2), summary);
+        assertEquals(3, flushed.size());
+        assertEquals(List.of(BulkItemResult.created(1, 100L), BulkItemResult.failed(2,
+                "Название вещи не должно быть пустым")), flushed.get(0));
+        assertEquals(BulkItemResult.created(4, 101L), flushed.get(1).get(0));
+        assertEquals(6, flushed.get(2).get(0).line());
+        assertEquals(102L, flushed.get(2).get(0).id());
+        assertTrue(flushed.get(1).get(1).error().startsWith("Malformed JSON"));
+
+        ArgumentCaptor<List<Item>> batches = ArgumentCaptor.captor();
+        verify(itemService, times(3)).createItems(batches.capture(), eq(OWNER_ID));
+        Item item = batches.getAllValues().get(1).get(0);
+        assertEquals("Пила", item.getName());
+        assertEquals(5L, item.getRequestId());
+        verify(entityManager, times(3)).clear();
+        // Пила привязана к запросу и в подбор не попадает
+        verify(requestMatcher, times(2)).awaitCapacity(1, Duration.ofSeconds(1));
+        verify(requestMatcher).awaitCapacity(0, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void importItems_whenCsv_thenColumnsTakenFromHeader() throws IOException {
+        assignIds();
+        String body = """
+                available,name,description
+                true,"Дрель, ударная","Мощность ""800"" Вт"
+                maybe,Пила,Цепная
+                """;
+
+        BulkImportSummary summary = importer.importItems(OWNER_ID, BulkItemFormat.CSV, stream(body), flushed::add);
+
+        assertEquals(new BulkImportSummary(1, 1), summary);
+        assertEquals(BulkItemResult.created(2, 100L), flushed.get(0).get(0));
+        assertEquals(3, flushed.get(0).get(1).line());
+        assertNotNull(flushed.get(0).get(1).error());
+
+        ArgumentCaptor<List<Item>> batch = ArgumentCaptor.captor();
+        verify(itemService).createItems(batch.capture(), eq(OWNER_ID));
+        assertEquals("Дрель, ударная", batch.getValue().get(0).getName());
+        assertEquals("Мощность \"800\" Вт", batch.getValue().get(0).getDescription());
+    }
+
+    @Test
+    void importItems_whenCsvHeaderUnknown_thenIllegalArgument() {
+        String body = "name,description,available,price\n";
+
+        assertThrows(IllegalArgumentException.class,
+                () -> importer.importItems(OWNER_ID, BulkItemFormat.CSV, stream(body), flushed::add));
+        verifyNoInteractions(itemService);
+    }
+
+    @Test
+    void importItems_whenLineTooLong_thenRejectedAndNextLineRead() throws IOException {
+        assignIds();
+        String body = "{\"name\":\"Дрель\",\"description\":\"" + "x".repeat(400) + "\",\"available\":true}\n"
+                + "{\"name\":\"Пила\",\"description\":\"Цепная\",\"available\":true}\n";
+
+        BulkImportSummary summary = importer.importItems(OWNER_ID, BulkItemFormat.NDJSON, stream(body), flushed::add);
+
+        assertEquals(new BulkImportSummary(1, 1), summary);
+        assertEquals(BulkItemResult.failed(1, "Line is longer than 300 characters"), flushed.get(0).get(0));
+        assertEquals(BulkItemResult.created(2, 100L), flushed.get(0).get(1));
+    }
+
+    @Test
+    void importItems_whenBatchFails_thenItsLinesFailedAndNextBatchSaved() throws IOException {
+        when(itemService.createItems(anyList(), eq(OWNER_ID)))
+                .thenThrow(new DataIntegrityViolationException("duplicate"))
+                .thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+        when(requestMatcher.awaitCapacity(anyInt(), any())).thenReturn(false);
+        String body = """
+                {"name":"Дрель","description":"Ударная","available":true}
+                {"name":"Пила","description":"Цепная","available":true}
+                {"name":"Молоток","description":"Слесарный","available":true}
+                """;
+
+        BulkImportSummary summary = importer.importItems(OWNER_ID, BulkItemFormat.NDJSON, stream(body), flushed::add);
+
+        assertEquals(new BulkImportSummary(1, 2), summary);
+        assertTrue(flushed.get(0).stream().allMatch(result -> result.error() != null));
+        assertEquals(BulkItemResult.created(3, 100L), flushed.get(1).get(0));
+    }
+
+    @Test
+    void importItems_whenOwnerNotFound_thenNothingRead() {
+        doThrow(new NotFoundException("User not found")).when(userService).validateUserExists(OWNER_ID);
+
+        assertThrows(NotFoundException.class,
+                () -> importer.importItems(OWNER_ID, BulkItemFormat.NDJSON, stream("{}\n"), flushed::add));
+        verifyNoInteractions(itemService);
+        assertTrue(flushed.isEmpty());
+    }
+
+    private void assignIds() {
+        when(requestMatcher.awaitCapacity(anyInt(), any())).thenReturn(true);
+        when(itemService.createItems(anyList(), eq(OWNER_ID)))
+                .thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+    }
+
+    private List<Item> withIds(List<Item> items) {
+        items.forEach(item -> item.setId(ids.getAndIncrement()));
+        return items;
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
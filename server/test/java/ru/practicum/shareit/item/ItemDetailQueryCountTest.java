@@ -0,0 +1,136 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
+import ru.practicum.shareit.config.PersistenceConfig;
+import ru.practicum.shareit.item.comments.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.timeline.ItemTimelineServiceImpl;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.email.EmailBloomFilter;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.platform=h2",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({PersistenceConfig.class, ItemServiceImpl.class, UserServiceImpl.class, ItemSearchIndex.class,
+        ItemTimelineServiceImpl.class, BookingIntervalIndex.class, EmailBloomFilter.class, UserCache.class})
+class ItemDetailQueryCountTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private ItemTimelineServiceImpl timelineService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(User.builder().name("Owner").email("owner@email.com").build());
+        booker = em.persist(User.builder().name("Booker").email("booker@email.com").build());
+    }
+
+    @Test
+    void getItemById_whenOwner_thenStatementCountDoesNotDependOnComments() {
+        Item fewComments = itemWithComments(2);
+        Item manyComments = itemWithComments(200);
+
+        long fewStatements = statementsFor(fewComments.getId(), owner.getId());
+        long manyStatements = statementsFor(manyComments.getId(), owner.getId());
+
+        // Вещь, запись item_timelines, комментарии с авторами
+        assertEquals(3, fewStatements);
+        assertEquals(fewStatements, manyStatements);
+    }
+
+    @Test
+    void getItemById_whenNotOwner_thenOnlyItemAndComments() {
+        Item item = itemWithComments(50);
+
+        assertEquals(2, statementsFor(item.getId(), booker.getId()));
+    }
+
+    @Test
+    void getItemById_whenOwner_thenBookingsAndCommentAuthorsFilled() {
+        Item item = itemWithComments(3);
+        em.clear();
+
+        ItemDto result = itemService.getItemById(item.getId(), owner.getId());
+
+        assertNotNull(result.getLastBooking());
+        assertEquals(booker.getId(), result.getLastBooking().getBookerId());
+        assertNotNull(result.getNextBooking());
+        assertEquals(3, result.getComments().size());
+        assertEquals("Booker", result.getComments().get(0).getAuthorName());
+    }
+
+    private long statementsFor(Long itemId, Long userId) {
+        em.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        itemService.getItemById(itemId, userId);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Item itemWithComments(int comments) {
+        Item item = em.persist(Item.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        em.persist(booking(item, now.minusDays(3), now.minusDays(2)));
+        em.persist(booking(item, now.plusDays(2), now.plusDays(3)));
+        em.flush();
+        timelineService.refreshTimeline(item.getId());
+        for (int i = 0; i < comments; i++) {
+            em.persist(Comment.builder()
+                    .text("Комментарий " + i)
+                    .item(item)
+                    .author(booker)
+                    .created(now.minusMinutes(i))
+                    .build());
+        }
+        em.flush();
+        return item;
+    }
+
+    private Booking booking(Item item, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+}
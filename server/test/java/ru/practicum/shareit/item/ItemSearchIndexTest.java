@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ConsistencyReport;
+import ru.practicum.shareit.item.search.ItemSavedEvent;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex searchIndex;
+
+    private Item drill;
+    private Item saw;
+    private Item ladder;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ItemSearchIndex(itemRepository, true, 2);
+        drill = item(1L, "Дрель", "Ударная дрель с аккумулятором");
+        saw = item(2L, "Пила", "Пила для дрели не подходит");
+        ladder = item(3L, "Стремянка", "Алюминиевая, 5 ступеней");
+    }
+
+    @Test
+    void rebuild_thenSearchFromIndexByPages() {
+        stubDatabase(drill, saw, ladder);
+
+        searchIndex.rebuild();
+
+        assertTrue(searchIndex.isReady());
+        assertEquals(List.of(1L, 2L), ids(searchIndex.search("ДРЕЛ", 0, 10)));
+        assertEquals(List.of(2L), ids(searchIndex.search("дрел", 1, 10)));
+        assertEquals(List.of(3L), ids(searchIndex.search("5", 0, 10)));
+        assertTrue(searchIndex.search("молоток", 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_whenFilterExcludesItems_thenPageBuiltFromRemaining() {
+        Item hammerDrill = item(4L, "Перфоратор", "Сверлит как дрель");
+        stubDatabase(drill, saw, ladder, hammerDrill);
+        searchIndex.rebuild();
+
+        List<List<Long>> batches = new ArrayList<>();
+        Function<List<Long>, Set<Long>> booked = ids -> {
+            batches.add(ids);
+            return Set.of(1L);
+        };
+
+        assertEquals(List.of(2L, 4L), ids(searchIndex.search("дрел", 0, 10, booked)));
+        assertEquals(List.of(4L), ids(searchIndex.search("дрел", 1, 1, booked)));
+        assertEquals(List.of(1L, 2L, 4L), batches.get(0));
+    }
+
+    @Test
+    void onItemSaved_whenTextChangedOrAvailabilityFlipped_thenIndexUpdated() {
+        stubDatabase(drill, saw, ladder);
+        searchIndex.rebuild();
+
+        searchIndex.onItemSaved(new ItemSavedEvent(3L, 1L, "Стремянка", "Подходит к дрели", true, null));
+        assertEquals(List.of(1L, 2L, 3L), ids(searchIndex.search("дрел", 0, 10)));
+
+        searchIndex.onItemSaved(new ItemSavedEvent(1L, 1L, "Дрель", "Ударная дрель", false, null));
+        assertEquals(List.of(2L, 3L), ids(searchIndex.search("дрел", 0, 10)));
+
+        searchIndex.onItemSaved(new ItemSavedEvent(4L, 1L, "Перфоратор", "Мощнее дрели", true, 7L));
+        List<Item> found = searchIndex.search("перфо", 0, 10);
+        assertEquals(List.of(4L), ids(found));
+        assertEquals(7L, found.get(0).getRequestId());
+        assertTrue(found.get(0).getAvailable());
+    }
+
+    @Test
+    void checkConsistency_whenIndexDiffersFromDatabase_thenReported() {
+        stubDatabase(drill, saw);
+        searchIndex.rebuild();
+        assertTrue(searchIndex.checkConsistency().consistent());
+
+        // Изменения в БД мимо сервиса: пила переименована, вторая вещь пропала, появилась третья
+        Item renamed = item(2L, "Лобзик", "Пила для дрели не подходит");
+        stubDatabase(renamed, ladder);
+
+        ConsistencyReport report = searchIndex.checkConsistency();
+
+        assertFalse(report.consistent());
+        assertEquals(List.of(3L), report.missingSample());
+        assertEquals(List.of(2L), report.staleSample());
+        assertEquals(List.of(1L), report.extraSample());
+    }
+
+    private void stubDatabase(Item... items) {
+        List<Item> all = List.of(items);
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(any(), eq(Limit.of(2))))
+                .thenAnswer(invocation -> {
+                    long after = invocation.getArgument(0);
+                    return all.stream().filter(item -> item.getId() > after).limit(2).toList();
+                });
+    }
+
+    private static Item item(Long id, String name, String description) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(true)
+                .build();
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).toList();
+    }
+}
@@ -7,26 +7,40 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
+import ru.practicum.shareit.booking.interval.FreeSlot;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exceptions.exception.NotFoundException;
 import ru.practicum.shareit.item.comments.Comment;
 import ru.practicum.shareit.item.comments.CommentDto;
+import ru.practicum.shareit.item.comments.CommentMapper;
 
 import ru.practicum.shareit.item.comments.CommentRepository;
 import ru.practicum.shareit.item.comments.CreateCommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSavedEvent;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.timeline.ItemTimeline;
+import ru.practicum.shareit.item.timeline.ItemTimelineService;
+import ru.practicum.shareit.request.matching.RequestMatchDto;
+import ru.practicum.shareit.request.matching.RequestMatchRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -47,6 +61,21 @@ class ItemServiceImplTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private ItemSearchIndex searchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ItemTimelineService timelineService;
+
+    @Mock
+    private BookingIntervalIndex intervalIndex;
+
+    @Mock
+    private RequestMatchRepository matchRepository;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -106,6 +135,8 @@ class ItemServiceImplTest {
         assertNotNull(result);
         assertEquals(item.getId(), result.getId());
         verify(itemRepository).save(item);
+        verify(timelineService).initTimeline(item.getId());
+        verify(eventPublisher).publishEvent(ItemSavedEvent.of(item));
     }
 
     @Test
@@ -129,11 +160,11 @@ class ItemServiceImplTest {
     @Test
     void getItemById_whenOwner_thenWithBookings() {
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository.findFirstByItemIdAndStartBeforeAndStatusOrderByStartDesc(
-                anyLong(), any(LocalDateTime.class), any(BookingStatus.class)))
-                .thenReturn(Optional.of(booking));
-        when(commentRepository.findByItemIdOrderByCreatedDesc(anyLong()))
-                .thenReturn(List.of(comment));
+        ItemTimeline timeline = ItemTimeline.empty(1L);
+        timeline.setLast(booking);
+        when(timelineService.getTimelines(List.of(1L))).thenReturn(Map.of(1L, timeline));
+        when(commentRepository.findCommentDtosByItemId(anyLong()))
+                .thenReturn(List.of(CommentMapper.toCommentDto(comment)));
 
         ItemDto result = itemService.getItemById(1L, owner.getId());
 
@@ -146,8 +177,8 @@ class ItemServiceImplTest {
     @Test
     void getItemById_whenNotOwner_thenWithoutBookings() {
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(commentRepository.findByItemIdOrderByCreatedDesc(anyLong()))
-                .thenReturn(List.of(comment));
+        when(commentRepository.findCommentDtosByItemId(anyLong()))
+                .thenReturn(List.of(CommentMapper.toCommentDto(comment)));
 
         ItemDto result = itemService.getItemById(1L, 999L);
 
@@ -161,6 +192,7 @@ class ItemServiceImplTest {
     void updateItem_whenValid_thenSuccess() {
         Item existingItem = item.toBuilder().build();
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(existingItem));
+        when(timelineService.getTimelines(List.of(1L))).thenReturn(Map.of(1L, ItemTimeline.empty(1L)));
         when(itemRepository.save(any(Item.class))).thenReturn(existingItem);
 
         UpdateItemDto updateDto = UpdateItemDto.builder()
@@ -172,6 +204,7 @@ class ItemServiceImplTest {
 
         assertNotNull(result);
         verify(itemRepository).save(any(Item.class));
+        verify(eventPublisher).publishEvent(any(ItemSavedEvent.class));
     }
 
     @Test
@@ -186,19 +219,87 @@ class ItemServiceImplTest {
                 () -> itemService.updateItem(1L, updateDto, 999L));
     }
 
+    @Test
+    void getRequestMatches_whenOwner_thenFromRepository() {
+        RequestMatchDto match = new RequestMatchDto(item.getId(), item.getName(), 7L, "Нужна дрель", 0.8);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(matchRepository.findByItemId(item.getId())).thenReturn(List.of(match));
+
+        assertEquals(List.of(match), itemService.getRequestMatches(item.getId(), owner.getId()));
+    }
+
+    @Test
+    void getRequestMatches_whenNotOwner_thenThrowException() {
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+
+        assertThrows(NotFoundException.class,
+                () -> itemService.getRequestMatches(item.getId(), 999L));
+        verifyNoInteractions(matchRepository);
+    }
+
     @Test
     void searchItems_whenValidText_thenSuccess() {
-        when(itemRepository.searchAvailableItems(anyString())).thenReturn(List.of(item));
+        when(itemRepository.searchAvailableItems(anyString(), anyInt(), anyInt())).thenReturn(List.of(item));
 
-        List<Item> result = itemService.searchItems("item");
+        List<Item> result = itemService.searchItems("item", 0, 10);
 
         assertNotNull(result);
         assertEquals(1, result.size());
     }
 
+    @Test
+    void searchItems_whenIndexReady_thenDatabaseNotQueried() {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("item", 0, 10)).thenReturn(List.of(item));
+
+        List<Item> result = itemService.searchItems("item", 0, 10);
+
+        assertEquals(1, result.size());
+        verify(itemRepository, never()).searchAvailableItems(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void searchItemsFreeBetween_whenIndexNotReady_thenSingleDatabaseQuery() {
+        LocalDateTime start = LocalDateTime.now().plusDays(5);
+        LocalDateTime end = start.plusDays(2);
+        when(itemRepository.searchAvailableItemsFreeBetween("item", start, end, 0, 10)).thenReturn(List.of(item));
+
+        List<Item> result = itemService.searchItemsFreeBetween("item", start, end, 0, 10);
+
+        assertEquals(List.of(item), result);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void searchItemsFreeBetween_whenIndexReady_thenBookedIdsQueriedPerBatch() {
+        LocalDateTime start = LocalDateTime.now().plusDays(5);
+        LocalDateTime end = start.plusDays(2);
+        when(searchIndex.isReady()).thenReturn(true);
+        when(bookingRepository.findItemIdsBookedBetween(List.of(1L, 2L), start, end, BookingStatus.APPROVED))
+                .thenReturn(List.of(2L));
+        when(searchIndex.search(eq("item"), eq(0), eq(10), any())).thenAnswer(invocation -> {
+            Function<List<Long>, Set<Long>> excluded = invocation.getArgument(3);
+            assertEquals(Set.of(2L), excluded.apply(List.of(1L, 2L)));
+            return List.of(item);
+        });
+
+        List<Item> result = itemService.searchItemsFreeBetween("item", start, end, 0, 10);
+
+        assertEquals(List.of(item), result);
+        verify(itemRepository, never()).searchAvailableItemsFreeBetween(anyString(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void searchItemsFreeBetween_whenStartNotBeforeEnd_thenThrowException() {
+        LocalDateTime start = LocalDateTime.now().plusDays(5);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> itemService.searchItemsFreeBetween("item", start, start, 0, 10));
+    }
+
     @Test
     void searchItems_whenBlankText_thenEmptyList() {
-        List<Item> result = itemService.searchItems(" ");
+        List<Item> result = itemService.searchItems(" ", 0, 10);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -239,4 +340,49 @@ class ItemServiceImplTest {
         assertThrows(IllegalArgumentException.class,
                 () -> itemService.addComment(1L, booker.getId(), commentDto));
     }
+
+    @Test
+    void getAvailability_whenAvailable_thenFreeSlotsFromIndex() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusDays(2);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(intervalIndex.freeSlots(1L, from, to)).thenReturn(List.of(
+                new FreeSlot(from, from.plusHours(5)), new FreeSlot(from.plusDays(1), to)));
+
+        ItemAvailabilityDto result = itemService.getAvailability(1L, from, to);
+
+        assertEquals(2, result.getFreeSlots().size());
+        assertEquals(from.plusHours(5), result.getFreeSlots().get(0).getEnd());
+        assertEquals(to, result.getFreeSlots().get(1).getEnd());
+    }
+
+    @Test
+    void getAvailability_whenWindowStartsInPast_thenClippedToNow() {
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(intervalIndex.freeSlots(eq(1L), any(), eq(to))).thenReturn(List.of());
+
+        itemService.getAvailability(1L, to.minusDays(10), to);
+
+        verify(intervalIndex).freeSlots(eq(1L), argThat(start -> start.isAfter(to.minusDays(2))), eq(to));
+    }
+
+    @Test
+    void getAvailability_whenItemNotAvailable_thenNoSlots() {
+        item.setAvailable(false);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        ItemAvailabilityDto result = itemService.getAvailability(1L, from, from.plusDays(1));
+
+        assertTrue(result.getFreeSlots().isEmpty());
+        verifyNoInteractions(intervalIndex);
+    }
+
+    @Test
+    void getAvailability_whenFromNotBeforeTo_thenThrowException() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        assertThrows(IllegalArgumentException.class, () -> itemService.getAvailability(1L, from, from));
+    }
 }
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.config.PersistenceConfig;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.timeline.ItemTimeline;
+import ru.practicum.shareit.item.timeline.ItemTimelineRepository;
+import ru.practicum.shareit.item.timeline.ItemTimelineServiceImpl;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.sql.init.platform=h2")
+@Import({PersistenceConfig.class, ItemTimelineServiceImpl.class})
+class ItemTimelineServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private ItemTimelineServiceImpl timelineService;
+
+    @Autowired
+    private ItemTimelineRepository timelineRepository;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        User owner = em.persist(User.builder().name("Owner").email("owner@email.com").build());
+        booker = em.persist(User.builder().name("Booker").email("booker@email.com").build());
+        item = em.persist(Item.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+        timelineService.initTimeline(item.getId());
+    }
+
+    @Test
+    void refreshTimeline_thenLastAndNextApprovedStored() {
+        Booking last = em.persist(booking(now.minusDays(2), BookingStatus.APPROVED));
+        Booking next = em.persist(booking(now.plusDays(1), BookingStatus.APPROVED));
+        em.persist(booking(now.plusHours(1), BookingStatus.WAITING));
+        em.flush();
+
+        timelineService.refreshTimeline(item.getId());
+        em.flush();
+        em.clear();
+
+        ItemTimeline timeline = timelineRepository.findById(item.getId()).orElseThrow();
+        assertEquals(last.getId(), timeline.getLastBookingId());
+        assertEquals(booker.getId(), timeline.getLastBookerId());
+        assertEquals(next.getId(), timeline.getNextBookingId());
+        assertEquals(next.getStart(), timeline.getNextStart());
+    }
+
+    @Test
+    void rollForward_whenNextBookingStarted_thenShifted() {
+        Booking started = em.persist(booking(now.minusMinutes(5), BookingStatus.APPROVED));
+        Booking upcoming = em.persist(booking(now.plusDays(3), BookingStatus.APPROVED));
+        // Запись в состоянии до начала бронирования started
+        timelineRepository.save(ItemTimeline.builder()
+                .itemId(item.getId())
+                .nextBookingId(started.getId())
+                .nextBookerId(booker.getId())
+                .nextStart(started.getStart())
+                .nextEnd(started.getEnd())
+                .build());
+        em.flush();
+
+        // Чтение не ждёт фонового сдвига
+        ItemTimeline read = timelineService.getTimelines(List.of(item.getId())).get(item.getId());
+        assertEquals(started.getId(), read.getLastBookingId());
+        assertEquals(upcoming.getId(), read.getNextBookingId());
+        em.clear();
+
+        assertEquals(1, timelineService.rollForward());
+        em.flush();
+        em.clear();
+
+        ItemTimeline stored = timelineRepository.findById(item.getId()).orElseThrow();
+        assertEquals(started.getId(), stored.getLastBookingId());
+        assertEquals(upcoming.getId(), stored.getNextBookingId());
+        assertEquals(0, timelineService.rollForward());
+    }
+
+    @Test
+    void rollForward_whenItemHasNoTimeline_thenBackfilled() {
+        timelineRepository.deleteById(item.getId());
+        Booking last = em.persist(booking(now.minusDays(1), BookingStatus.APPROVED));
+        em.flush();
+
+        assertEquals(1, timelineService.rollForward());
+        em.flush();
+        em.clear();
+
+        ItemTimeline stored = timelineRepository.findById(item.getId()).orElseThrow();
+        assertEquals(last.getId(), stored.getLastBookingId());
+        assertNull(stored.getNextBookingId());
+    }
+
+    private Booking booking(LocalDateTime start, BookingStatus status) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.itemrequest;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.config.PersistenceConfig;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestServiceImpl;
+import ru.practicum.shareit.request.RequestFeedCache;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.email.EmailBloomFilter;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.platform=h2",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.requests.feed.segment-size=5"
+})
+@Import({PersistenceConfig.class, ItemRequestServiceImpl.class, UserServiceImpl.class,
+        EmailBloomFilter.class, UserCache.class, RequestFeedCache.class})
+class ItemRequestQueryCountTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private ItemRequestServiceImpl requestService;
+
+    @Autowired
+    private RequestFeedCache feedCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User requester;
+    private User viewer;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        requester = em.persist(User.builder().name("Requester").email("requester@email.com").build());
+        viewer = em.persist(User.builder().name("Viewer").email("viewer@email.com").build());
+        now = LocalDateTime.now();
+        // Сегмент живёт дольше транзакции теста
+        feedCache.invalidate();
+    }
+
+    @Test
+    void getOtherUsersRequests_thenStatementCountDoesNotDependOnPageSize() {
+        requestsWithAnswers(20, 3);
+        // Прогрев кэша существования пользователя и сегмента ленты
+        requestService.getOtherUsersRequests(viewer.getId(), null, 1);
+
+        // Начало ленты берётся из сегмента
+        assertEquals(0, statementsFor(() -> requestService.getOtherUsersRequests(viewer.getId(), null, 2)));
+        // Страница запросов и ответы на все запросы страницы
+        long small = statementsFor(() -> requestService.getOtherUsersRequests(viewer.getId(), null, 6));
+        long large = statementsFor(() -> requestService.getOtherUsersRequests(viewer.getId(), null, 20));
+        assertEquals(2, small);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void getOtherUsersRequests_whenWalkingByCursor_thenEveryOtherRequestOnceInOrder() {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            // Пары с одинаковым временем создания: порядок и курсор держатся на id
+            LocalDateTime created = now.minusHours(i / 2).truncatedTo(ChronoUnit.SECONDS);
+            expected.add(em.persist(ItemRequest.builder()
+                    .description("Запрос " + i).requester(requester).created(created).build()).getId());
+            em.persist(ItemRequest.builder().description("Свой " + i).requester(viewer).created(created).build());
+        }
+        em.flush();
+        expected.sort(Comparator.comparing((Long id) -> em.find(ItemRequest.class, id).getCreated())
+                .thenComparing(Comparator.naturalOrder()).reversed());
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            KeysetPage<ItemRequestDto> page = requestService.getOtherUsersRequests(viewer.getId(), cursor, 2);
+            page.content().forEach(request -> walked.add(request.getId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, walked);
+        assertEquals(6, pages);
+    }
+
+    @Test
+    void getUserRequests_thenItemsGroupedByRequestWithOwnerIds() {
+        List<ItemRequest> requests = requestsWithAnswers(3, 2);
+        em.persist(ItemRequest.builder().description("Без ответов").requester(requester).created(now).build());
+        em.flush();
+        em.clear();
+
+        List<ItemRequestDto> result = requestService.getUserRequests(requester.getId());
+
+        assertEquals(4, result.size());
+        assertTrue(result.get(0).getItems().isEmpty());
+        for (ItemRequestDto dto : result.subList(1, 4)) {
+            assertEquals(2, dto.getItems().size());
+            dto.getItems().forEach(item -> {
+                assertEquals(dto.getId(), item.getRequestId());
+                assertEquals(viewer.getId(), item.getOwnerId());
+            });
+        }
+        assertEquals(requests.get(0).getId(), result.get(1).getId());
+    }
+
+    private long statementsFor(Supplier<?> call) {
+        em.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<ItemRequest> requestsWithAnswers(int requests, int answers) {
+        List<ItemRequest> created = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            ItemRequest request = em.persist(ItemRequest.builder()
+                    .description("Запрос " + i)
+                    .requester(requester)
+                    .created(now.minusHours(i + 1))
+                    .build());
+            for (int j = 0; j < answers; j++) {
+                em.persist(Item.builder()
+                        .name("Ответ " + i + "." + j)
+                        .description("Ответ на запрос " + i)
+                        .available(true)
+                        .owner(viewer)
+                        .requestId(request.getId())
+                        .build());
+            }
+            created.add(request);
+        }
+        em.flush();
+        return created;
+    }
+}
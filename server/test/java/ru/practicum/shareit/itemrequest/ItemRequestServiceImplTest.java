@@ -6,15 +6,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import ru.practicum.shareit.exceptions.exception.NotFoundException;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestServiceImpl;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.CreateItemRequestDto;
 import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.RequestFeedCache;
+import ru.practicum.shareit.request.matching.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.matching.RequestMatchDto;
+import ru.practicum.shareit.request.matching.RequestMatchRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -38,12 +45,21 @@ class ItemRequestServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private RequestFeedCache feedCache;
+
+    @Mock
+    private RequestMatchRepository matchRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ItemRequestServiceImpl requestService;
 
     private User requester;
     private ItemRequest request;
-    private Item item;
+    private ItemRequestDto.ItemDto item;
 
     @BeforeEach
     void setUp() {
@@ -60,12 +76,12 @@ class ItemRequestServiceImplTest {
                 .created(LocalDateTime.now())
                 .build();
 
-        item = Item.builder()
+        item = ItemRequestDto.ItemDto.builder()
                 .id(1L)
                 .name("Drill")
                 .description("Powerful drill")
                 .available(true)
-                .owner(requester)
+                .ownerId(requester.getId())
                 .requestId(request.getId())
                 .build();
     }
@@ -84,14 +100,16 @@ class ItemRequestServiceImplTest {
         assertNotNull(result);
         assertEquals(request.getDescription(), result.getDescription());
         verify(requestRepository).save(any(ItemRequest.class));
+        verify(eventPublisher).publishEvent(ItemRequestCreatedEvent.of(request));
+        // Сегмент ленты сбрасывается слушателем после коммита, а не внутри транзакции
+        verifyNoInteractions(feedCache);
     }
 
     @Test
     void getUserRequests_whenValid_thenSuccess() {
-        when(userService.getUserById(anyLong())).thenReturn(requester);
         when(requestRepository.findByRequesterIdOrderByCreatedDesc(anyLong()))
                 .thenReturn(List.of(request));
-        when(itemRepository.findByRequestId(anyLong())).thenReturn(List.of(item));
+        when(itemRepository.findRequestItems(List.of(request.getId()))).thenReturn(List.of(item));
 
         List<ItemRequestDto> result = requestService.getUserRequests(requester.getId());
 
@@ -102,23 +120,82 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getOtherUsersRequests_whenValid_thenSuccess() {
-        when(userService.getUserById(anyLong())).thenReturn(requester);
-        when(requestRepository.findByRequesterIdNotOrderByCreatedDesc(
-                anyLong(), any(org.springframework.data.domain.Pageable.class)))
-                .thenReturn(List.of(request));
-        when(itemRepository.findByRequestId(anyLong())).thenReturn(List.of(item));
+        when(feedCache.page(anyLong(), isNull(), eq(10), any())).thenReturn(Optional.empty());
+        when(requestRepository.findFeed(requester.getId(), Limit.of(11))).thenReturn(List.of(request));
+        when(itemRepository.findRequestItems(List.of(request.getId()))).thenReturn(List.of(item));
 
-        List<ItemRequestDto> result = requestService.getOtherUsersRequests(requester.getId(), 0, 10);
+        KeysetPage<ItemRequestDto> result = requestService.getOtherUsersRequests(requester.getId(), null, 10);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
+        assertEquals(1, result.content().size());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void getOtherUsersRequests_whenSegmentCoversPage_thenNoDatabaseQuery() {
+        KeysetPage<ItemRequestDto> cached = new KeysetPage<>(List.of(), null);
+        when(feedCache.page(anyLong(), isNull(), eq(10), any())).thenReturn(Optional.of(cached));
+
+        assertSame(cached, requestService.getOtherUsersRequests(requester.getId(), null, 10));
+        verifyNoInteractions(requestRepository, itemRepository);
+    }
+
+    @Test
+    void getOtherUsersRequests_whenMoreThanPage_thenCursorFromLastReturned() {
+        LocalDateTime created = LocalDateTime.of(2026, 1, 10, 12, 0);
+        KeysetCursor position = new KeysetCursor(created, 9L);
+        ItemRequest older = ItemRequest.builder().id(5L).description("Older").requester(requester)
+                .created(created.minusDays(1)).build();
+        ItemRequest oldest = ItemRequest.builder().id(4L).description("Oldest").requester(requester)
+                .created(created.minusDays(2)).build();
+        when(feedCache.page(anyLong(), eq(position), eq(1), any())).thenReturn(Optional.empty());
+        when(requestRepository.findFeedAfter(requester.getId(), created, 9L, Limit.of(2)))
+                .thenReturn(List.of(older, oldest));
+        when(itemRepository.findRequestItems(List.of(5L))).thenReturn(List.of());
+
+        KeysetPage<ItemRequestDto> result = requestService.getOtherUsersRequests(
+                requester.getId(), position.encode(), 1);
+
+        assertEquals(List.of(5L), result.content().stream().map(ItemRequestDto::getId).toList());
+        assertEquals(new KeysetCursor(older.getCreated(), 5L), KeysetCursor.decode(result.nextCursor()));
+    }
+
+    @Test
+    void getOtherUsersRequests_whenSizeNotPositive_thenThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> requestService.getOtherUsersRequests(requester.getId(), null, 0));
+        verifyNoInteractions(feedCache, requestRepository);
+    }
+
+    @Test
+    void getOtherUsersRequests_whenManyRequests_thenItemsLoadedOnceAndGrouped() {
+        ItemRequest unanswered = ItemRequest.builder()
+                .id(2L)
+                .description("Need a ladder")
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .build();
+        ItemRequestDto.ItemDto secondAnswer = ItemRequestDto.ItemDto.builder()
+                .id(2L)
+                .name("Hammer drill")
+                .requestId(request.getId())
+                .ownerId(5L)
+                .build();
+        when(feedCache.page(anyLong(), isNull(), eq(10), any())).thenReturn(Optional.empty());
+        when(requestRepository.findFeed(requester.getId(), Limit.of(11))).thenReturn(List.of(request, unanswered));
+        when(itemRepository.findRequestItems(List.of(1L, 2L))).thenReturn(List.of(item, secondAnswer));
+
+        List<ItemRequestDto> result = requestService.getOtherUsersRequests(requester.getId(), null, 10).content();
+
+        assertEquals(2, result.get(0).getItems().size());
+        assertEquals(5L, result.get(0).getItems().get(1).getOwnerId());
+        assertTrue(result.get(1).getItems().isEmpty());
+        verify(itemRepository, times(1)).findRequestItems(anyCollection());
     }
 
     @Test
     void getRequestById_whenExists_thenSuccess() {
-        when(userService.getUserById(anyLong())).thenReturn(requester);
         when(requestRepository.findById(anyLong())).thenReturn(Optional.of(request));
-        when(itemRepository.findByRequestId(anyLong())).thenReturn(List.of(item));
+        when(itemRepository.findRequestItems(List.of(request.getId()))).thenReturn(List.of(item));
 
         ItemRequestDto result = requestService.getRequestById(1L, requester.getId());
 
@@ -129,10 +206,38 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getRequestById_whenNotExists_thenThrowException() {
-        when(userService.getUserById(anyLong())).thenReturn(requester);
         when(requestRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
                 () -> requestService.getRequestById(999L, requester.getId()));
     }
+
+    @Test
+    void getUserRequests_whenUserNotExists_thenNoRequestQuery() {
+        doThrow(new NotFoundException("User not found with id: 999"))
+                .when(userService).validateUserExists(999L);
+
+        assertThrows(NotFoundException.class,
+                () -> requestService.getUserRequests(999L));
+        verify(requestRepository, never()).findByRequesterIdOrderByCreatedDesc(anyLong());
+        verify(userService, never()).getUserById(anyLong());
+    }
+
+    @Test
+    void getItemMatches_whenAuthor_thenOnlyAvailableFromRepository() {
+        RequestMatchDto match = new RequestMatchDto(3L, "Дрель", request.getId(), request.getDescription(), 0.7);
+        when(requestRepository.findById(request.getId())).thenReturn(Optional.of(request));
+        when(matchRepository.findAvailableByRequestId(request.getId())).thenReturn(List.of(match));
+
+        assertEquals(List.of(match), requestService.getItemMatches(request.getId(), requester.getId()));
+    }
+
+    @Test
+    void getItemMatches_whenNotAuthor_thenThrowException() {
+        when(requestRepository.findById(request.getId())).thenReturn(Optional.of(request));
+
+        assertThrows(NotFoundException.class,
+                () -> requestService.getItemMatches(request.getId(), 999L));
+        verifyNoInteractions(matchRepository);
+    }
 }
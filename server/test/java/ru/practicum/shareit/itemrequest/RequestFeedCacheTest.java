@@ -0,0 +1,117 @@
+package ru.practicum.shareit.itemrequest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import ru.practicum.shareit.item.search.ItemSavedEvent;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.request.RequestFeedCache;
+import ru.practicum.shareit.request.RequestFeedCache.FeedEntry;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.matching.ItemRequestCreatedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestFeedCacheTest {
+    private static final long VIEWER = 1L;
+    private static final long OTHER = 2L;
+
+    private final LocalDateTime created = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    private RequestFeedCache feedCache;
+    private List<FeedEntry> newest;
+    private int loads;
+
+    @BeforeEach
+    void setUp() {
+        feedCache = new RequestFeedCache(new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class),
+                4, Duration.ofMinutes(1));
+        newest = new ArrayList<>();
+        loads = 0;
+    }
+
+    @Test
+    void page_whenSegmentCoversPage_thenOwnRequestsSkippedAndLoadedOnce() {
+        // id 8..5 по убыванию времени создания, 7 — свой запрос
+        newest.addAll(List.of(entry(OTHER, 8, 0), entry(VIEWER, 7, 1), entry(OTHER, 6, 2), entry(OTHER, 5, 3)));
+
+        KeysetPage<ItemRequestDto> first = feedCache.page(VIEWER, null, 2, this::load).orElseThrow();
+        Optional<KeysetPage<ItemRequestDto>> second = feedCache.page(VIEWER,
+                KeysetCursor.decode(first.nextCursor()), 2, this::load);
+
+        assertEquals(List.of(8L, 6L), ids(first));
+        assertEquals(new KeysetCursor(created.minusMinutes(2), 6L), KeysetCursor.decode(first.nextCursor()));
+        // Сегмент заполнен до лимита: за ним могут быть ещё запросы
+        assertTrue(second.isEmpty());
+        assertEquals(1, loads);
+    }
+
+    @Test
+    void page_whenSegmentIsWholeTable_thenLastPageWithoutCursor() {
+        newest.addAll(List.of(entry(OTHER, 3, 0), entry(VIEWER, 2, 0), entry(OTHER, 1, 0)));
+
+        KeysetPage<ItemRequestDto> page = feedCache.page(VIEWER, new KeysetCursor(created, 3L), 2, this::load)
+                .orElseThrow();
+
+        assertEquals(List.of(1L), ids(page));
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void page_whenPageNotSmallerThanSegment_thenDatabase() {
+        assertTrue(feedCache.page(VIEWER, null, 4, this::load).isEmpty());
+        assertEquals(0, loads);
+    }
+
+    @Test
+    void onItemSaved_whenAnswerToRequest_thenSegmentReloaded() {
+        newest.add(entry(OTHER, 1, 0));
+        feedCache.page(VIEWER, null, 1, this::load);
+
+        feedCache.onItemSaved(new ItemSavedEvent(10L, 1L, "Дрель", "Ударная", true, null));
+        feedCache.page(VIEWER, null, 1, this::load);
+        assertEquals(1, loads);
+
+        feedCache.onItemSaved(new ItemSavedEvent(11L, 1L, "Дрель", "Ударная", true, 1L));
+        feedCache.page(VIEWER, null, 1, this::load);
+        assertEquals(2, loads);
+    }
+
+    @Test
+    void onRequestCreated_thenSegmentReloaded() {
+        newest.add(entry(OTHER, 1, 0));
+        feedCache.page(VIEWER, null, 1, this::load);
+
+        newest.add(0, entry(OTHER, 2, -1));
+        feedCache.onRequestCreated(new ItemRequestCreatedEvent(2L, OTHER, "Запрос 2"));
+
+        assertEquals(List.of(2L, 1L), ids(feedCache.page(VIEWER, null, 3, this::load).orElseThrow()));
+        assertEquals(2, loads);
+    }
+
+    private List<FeedEntry> load(int limit) {
+        loads++;
+        return newest.subList(0, Math.min(limit, newest.size()));
+    }
+
+    private FeedEntry entry(long requesterId, long id, int minutesAgo) {
+        return new FeedEntry(requesterId, ItemRequestDto.builder()
+                .id(id)
+                .description("Запрос " + id)
+                .created(created.minusMinutes(minutesAgo))
+                .items(List.of())
+                .build());
+    }
+
+    private static List<Long> ids(KeysetPage<ItemRequestDto> page) {
+        return page.content().stream().map(ItemRequestDto::getId).toList();
+    }
+}
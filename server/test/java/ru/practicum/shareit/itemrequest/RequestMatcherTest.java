@@ -0,0 +1,163 @@
+package ru.practicum.shareit.itemrequest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.search.ItemSavedEvent;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.matching.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.matching.OpenRequest;
+import ru.practicum.shareit.request.matching.RequestMatch;
+import ru.practicum.shareit.request.matching.RequestMatchRepository;
+import ru.practicum.shareit.request.matching.RequestMatcher;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestMatcherTest {
+    private static final long OWNER = 1L;
+    private static final long REQUESTER = 2L;
+
+    @Mock
+    private ItemRequestRepository requestRepository;
+
+    @Mock
+    private RequestMatchRepository matchRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RequestMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        matcher = new RequestMatcher(requestRepository, matchRepository, transactionManager,
+                true, 100, 100, 2, 0.5, 5, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void rebuild_thenOpenRequestsLoadedByPages() {
+        stubOpenRequests(
+                new OpenRequest(10L, REQUESTER, "Нужна ударная дрель"),
+                new OpenRequest(11L, REQUESTER, "Ищу стремянку"),
+                new OpenRequest(12L, REQUESTER, "Нужна пила"));
+
+        matcher.rebuild();
+
+        assertEquals(3, matcher.indexedRequests());
+        verify(requestRepository).findOpenRequests(0L, Limit.of(2));
+        verify(requestRepository).findOpenRequests(11L, Limit.of(2));
+    }
+
+    @Test
+    void process_thenBestRequestsSavedAndOldSuggestionsReplaced() {
+        stubOpenRequests(
+                new OpenRequest(10L, REQUESTER, "Нужна ударная дрель на выходные"),
+                new OpenRequest(11L, REQUESTER, "Нужна дрель"),
+                new OpenRequest(12L, REQUESTER, "Ищу стремянку"),
+                // Свой запрос владельцу не предлагается
+                new OpenRequest(13L, OWNER, "Нужна дрель"));
+        matcher.rebuild();
+
+        matcher.process(List.of(item(100L, "Дрель", "Ударная дрель с аккумулятором")));
+
+        Map<Long, Double> scores = savedScores();
+        assertEquals(1.0, scores.get(11L), 1e-9);
+        assertTrue(scores.containsKey(10L));
+        assertFalse(scores.containsKey(12L));
+        assertFalse(scores.containsKey(13L));
+        verify(matchRepository).deleteByItemIds(argThat((Collection<Long> ids) -> ids.equals(Set.of(100L))));
+    }
+
+    @Test
+    void onItemSaved_whenAnswerToRequest_thenRequestNoLongerSuggested() {
+        stubOpenRequests(new OpenRequest(10L, REQUESTER, "Нужна дрель"));
+        matcher.rebuild();
+
+        matcher.onItemSaved(new ItemSavedEvent(50L, OWNER, "Дрель", "Ответ на запрос", true, 10L));
+        matcher.onRequestCreated(new ItemRequestCreatedEvent(11L, REQUESTER, "Ищу дрель"));
+        matcher.process(List.of(item(100L, "Дрель", "Ударная")));
+
+        assertEquals(List.of(11L), List.copyOf(savedScores().keySet()));
+    }
+
+    @Test
+    void process_whenSameItemTwiceInBatch_thenLastVersionMatched() {
+        stubOpenRequests(new OpenRequest(10L, REQUESTER, "Нужна дрель"),
+                new OpenRequest(11L, REQUESTER, "Ищу стремянку"));
+        matcher.rebuild();
+
+        matcher.process(List.of(item(100L, "Дрель", "Ударная"), item(100L, "Стремянка", "Пять ступеней")));
+
+        assertEquals(List.of(11L), List.copyOf(savedScores().keySet()));
+    }
+
+    @Test
+    void awaitCapacity_whenQueueFull_thenTimesOutAndSingleItemsNotBlocked() {
+        for (long id = 1; id <= 100; id++) {
+            matcher.onItemSaved(new ItemSavedEvent(id, OWNER, "Дрель", "Ударная", true, null));
+        }
+        // Очередь заполнена: одиночная вещь отбрасывается сразу, без ожидания
+        matcher.onItemSaved(new ItemSavedEvent(101L, OWNER, "Пила", "Цепная", true, null));
+
+        assertFalse(matcher.awaitCapacity(1, Duration.ofMillis(10)));
+        assertTrue(matcher.awaitCapacity(0, Duration.ZERO));
+    }
+
+    @Test
+    void awaitCapacity_whenQueueHasRoom_thenReturnsImmediately() {
+        matcher.onItemSaved(new ItemSavedEvent(1L, OWNER, "Дрель", "Ударная", true, null));
+
+        assertTrue(matcher.awaitCapacity(99, Duration.ZERO));
+        assertFalse(matcher.awaitCapacity(100, Duration.ZERO));
+    }
+
+    @Test
+    void stop_whenWorkerStarted_thenThreadInterruptedAndJoined() throws InterruptedException {
+        matcher.onApplicationReady();
+        Thread worker = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("request-matcher"))
+                .findFirst()
+                .orElseThrow();
+
+        matcher.stop();
+
+        assertFalse(worker.isAlive());
+        assertTrue(matcher.awaitCapacity(100, Duration.ZERO));
+    }
+
+    private void stubOpenRequests(OpenRequest... requests) {
+        List<OpenRequest> all = List.of(requests);
+        when(requestRepository.findOpenRequests(anyLong(), eq(Limit.of(2)))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            return all.stream().filter(request -> request.id() > after).limit(2).toList();
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Double> savedScores() {
+        ArgumentCaptor<List<RequestMatch>> captor = ArgumentCaptor.forClass(List.class);
+        verify(matchRepository).saveAll(captor.capture());
+        return captor.getValue().stream()
+                .collect(Collectors.toMap(match -> match.getId().getRequestId(), RequestMatch::getScore));
+    }
+
+    private static ItemSavedEvent item(long id, String name, String description) {
+        return new ItemSavedEvent(id, OWNER, name, description, true, null);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.exceptions.exception.NotFoundException;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ServiceMetricsAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private UserService target;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        target = mock(UserService.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new ServiceMetricsAspect(registry));
+        userService = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void time_whenCalledInRequest_thenTaggedWithRoute() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/{userId}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        when(target.getUserById(1L)).thenReturn(User.builder().id(1L).build());
+
+        userService.getUserById(1L);
+
+        Timer timer = registry.get("shareit.service")
+                .tag("method", "getUserById")
+                .tag("uri", "/users/{userId}")
+                .tag("outcome", "SUCCESS")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void time_whenThrows_thenErrorOutcomeAndExceptionRethrown() {
+        doThrow(new NotFoundException("User not found with id: 2")).when(target).validateUserExists(2L);
+
+        assertThrows(NotFoundException.class, () -> userService.validateUserExists(2L));
+
+        Timer timer = registry.get("shareit.service")
+                .tag("method", "validateUserExists")
+                .tag("uri", "none")
+                .tag("outcome", "ERROR")
+                .tag("exception", "NotFoundException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementMetricsFilterTest {
+
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(counter, registry);
+
+    @Test
+    void doFilter_thenStatementsOfRequestThreadRecordedByRoute() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            counter.inspect("select * from items where id=?");
+            counter.inspect("select * from comments where item_id=?");
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items/{itemId}");
+        });
+
+        DistributionSummary summary = registry.get("shareit.sql.statements")
+                .tag("uri", "/items/{itemId}")
+                .tag("outcome", "SUCCESS")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    void inspect_whenNotStarted_thenNotCounted() {
+        counter.inspect("select 1");
+
+        assertEquals(0, counter.stop());
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.user.email.EmailBloomFilter;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailBloomFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void mightContain_whenNotBuilt_thenEveryEmailGoesToDatabase() {
+        EmailBloomFilter filter = new EmailBloomFilter(userRepository, false, 1000, 0.01, 100);
+
+        assertTrue(filter.mightContain("anyone@email.com"));
+    }
+
+    @Test
+    void rebuild_thenNoFalseNegativesAndFewFalsePositives() {
+        List<User> users = LongStream.rangeClosed(1, 10_000)
+                .mapToObj(id -> User.builder().id(id).name("User " + id).email("user" + id + "@email.com").build())
+                .toList();
+        when(userRepository.count()).thenReturn((long) users.size());
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(any(), eq(Limit.of(1000)))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            return users.stream().filter(user -> user.getId() > after).limit(1000).toList();
+        });
+        EmailBloomFilter filter = new EmailBloomFilter(userRepository, true, 10_000, 0.01, 1000);
+
+        filter.rebuild();
+
+        assertTrue(users.stream().allMatch(user -> filter.mightContain(user.getEmail())));
+        long falsePositives = LongStream.rangeClosed(1, 10_000)
+                .filter(i -> filter.mightContain("stranger" + i + "@email.com"))
+                .count();
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void add_whenBuilt_thenEmailVisibleImmediately() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(any(), any())).thenReturn(List.of());
+        EmailBloomFilter filter = new EmailBloomFilter(userRepository, true, 1000, 0.01, 100);
+        filter.rebuild();
+        assertFalse(filter.mightContain("new@email.com"));
+
+        filter.add("new@email.com");
+
+        assertTrue(filter.mightContain("new@email.com"));
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.cache.LongHashSet;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void addAndRemove_whenRandomOperations_thenSameAsHashSet() {
+        // Маленький диапазон ключей даёт длинные цепочки коллизий и частые удаления из середины
+        Random random = new Random(42);
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = 1 + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), set.remove(key));
+            } else {
+                assertEquals(expected.add(key), set.add(key));
+            }
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (long key = 1; key <= 2_000; key++) {
+            assertEquals(expected.contains(key), set.contains(key), "key " + key);
+        }
+    }
+
+    @Test
+    void add_whenKeyNotPositive_thenThrowException() {
+        LongHashSet set = new LongHashSet(16);
+
+        assertThrows(IllegalArgumentException.class, () -> set.add(0));
+        assertThrows(IllegalArgumentException.class, () -> set.add(-1));
+        assertFalse(set.contains(0));
+    }
+
+    @Test
+    void clear_thenEmpty() {
+        LongHashSet set = new LongHashSet(16);
+        set.add(7);
+        set.add(1L << 40);
+
+        set.clear();
+
+        assertEquals(0, set.size());
+        assertFalse(set.contains(7));
+    }
+}
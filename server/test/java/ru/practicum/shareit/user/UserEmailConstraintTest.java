@@ -0,0 +1,48 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.config.PersistenceConfig;
+import ru.practicum.shareit.exceptions.exception.ConflictException;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.dto.UpdateUserDto;
+import ru.practicum.shareit.user.email.EmailBloomFilter;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.sql.init.platform=h2")
+@Import({PersistenceConfig.class, UserServiceImpl.class, UserCache.class})
+class UserEmailConstraintTest {
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @MockBean
+    private EmailBloomFilter emailFilter;
+
+    @Test
+    void createUser_whenPreCheckMissesDuplicate_thenConstraintGivesConflict() {
+        userService.createUser(User.builder().name("First").email("same@email.com").build());
+        // Фильтр ошибся в сторону «свободен» — остаётся UQ_USER_EMAIL
+        when(emailFilter.mightContain(anyString())).thenReturn(false);
+
+        assertThrows(ConflictException.class,
+                () -> userService.createUser(User.builder().name("Second").email("same@email.com").build()));
+    }
+
+    @Test
+    void updateUser_whenPreCheckMissesDuplicate_thenConstraintGivesConflict() {
+        userService.createUser(User.builder().name("First").email("first@email.com").build());
+        User second = userService.createUser(User.builder().name("Second").email("second@email.com").build());
+        when(emailFilter.mightContain(anyString())).thenReturn(false);
+
+        assertThrows(ConflictException.class, () -> userService.updateUser(second.getId(),
+                UpdateUserDto.builder().email("first@email.com").build()));
+    }
+}
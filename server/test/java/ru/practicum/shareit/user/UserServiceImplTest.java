@@ -1,18 +1,24 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.exceptions.exception.ConflictException;
 import ru.practicum.shareit.exceptions.exception.NotFoundException;
-
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
+import ru.practicum.shareit.user.email.EmailBloomFilter;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,13 +32,18 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private EmailBloomFilter emailFilter;
+
     private UserServiceImpl userService;
 
     private User user;
 
     @BeforeEach
     void setUp() {
+        UserCache userCache = new UserCache(new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class),
+                100, Duration.ofMinutes(10), 100);
+        userService = new UserServiceImpl(userRepository, emailFilter, userCache);
         user = User.builder()
                 .id(1L)
                 .name("John Doe")
@@ -42,22 +53,55 @@ class UserServiceImplTest {
 
     @Test
     void createUser_whenValid_thenSuccess() {
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(emailFilter.mightContain(anyString())).thenReturn(true);
+        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
 
         User result = userService.createUser(user);
 
         assertNotNull(result);
         assertEquals(user.getId(), result.getId());
-        verify(userRepository).save(user);
+        verify(userRepository).saveAndFlush(user);
+        verify(emailFilter).add(user.getEmail());
+    }
+
+    @Test
+    void createUser_whenFilterSaysAbsent_thenNoExistenceQuery() {
+        when(emailFilter.mightContain(anyString())).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
+
+        userService.createUser(user);
+
+        verify(userRepository, never()).existsByEmail(anyString());
     }
 
     @Test
     void createUser_whenEmailExists_thenThrowException() {
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
+        when(emailFilter.mightContain(anyString())).thenReturn(true);
+        when(userRepository.existsByEmail(anyString())).thenReturn(true);
+
+        assertThrows(ConflictException.class,
+                () -> userService.createUser(user));
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createUser_whenUniqueConstraintFires_thenConflict() {
+        when(emailFilter.mightContain(anyString())).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation("uq_user_email"));
 
         assertThrows(ConflictException.class,
                 () -> userService.createUser(user));
+        verify(emailFilter, never()).add(anyString());
+    }
+
+    @Test
+    void createUser_whenOtherUniqueConstraintFires_thenRethrown() {
+        when(emailFilter.mightContain(anyString())).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation("users_pkey"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> userService.createUser(user));
     }
 
     @Test
@@ -78,6 +122,39 @@ class UserServiceImplTest {
                 () -> userService.getUserById(999L));
     }
 
+    @Test
+    void getUserById_whenCalledTwice_thenLoadedOnceAndCopiesReturned() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        User first = userService.getUserById(1L);
+        first.setName("Changed by caller");
+        User second = userService.getUserById(1L);
+
+        assertEquals("John Doe", second.getName());
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void validateUserExists_whenAlreadyLoaded_thenNoQuery() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userService.getUserById(1L);
+
+        userService.validateUserExists(1L);
+        userService.validateUserExists(1L);
+
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void validateUserExists_whenMissing_thenThrowAndCheckAgainNextTime() {
+        when(userRepository.existsById(999L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> userService.validateUserExists(999L));
+        assertThrows(NotFoundException.class, () -> userService.validateUserExists(999L));
+
+        verify(userRepository, times(2)).existsById(999L);
+    }
+
     @Test
     void getAllUsers_thenSuccess() {
         when(userRepository.findAll()).thenReturn(List.of(user));
@@ -96,12 +173,20 @@ class UserServiceImplTest {
                 .build();
 
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(emailFilter.mightContain("updated@email.com")).thenReturn(true);
+        when(userRepository.existsByEmailAndIdNot("updated@email.com", 1L)).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         User result = userService.updateUser(1L, updateDto);
 
         assertNotNull(result);
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(userRepository, never()).findAll();
+        verify(emailFilter).add("updated@email.com");
+        verify(emailFilter).remove("john@email.com");
+        // Обновлённая запись перечитывается из БД, а не берётся из кэша
+        userService.getUserById(1L);
+        verify(userRepository, times(2)).findById(1L);
     }
 
     @Test
@@ -117,7 +202,8 @@ class UserServiceImplTest {
                 .build();
 
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(userRepository.findAll()).thenReturn(List.of(existingUser));
+        when(emailFilter.mightContain(existingUser.getEmail())).thenReturn(true);
+        when(userRepository.existsByEmailAndIdNot(existingUser.getEmail(), 1L)).thenReturn(true);
 
         assertThrows(ConflictException.class,
                 () -> userService.updateUser(1L, updateDto));
@@ -125,10 +211,19 @@ class UserServiceImplTest {
 
     @Test
     void deleteUser_thenSuccess() {
-        doNothing().when(userRepository).deleteById(anyLong());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         userService.deleteUser(1L);
 
-        verify(userRepository).deleteById(1L);
+        verify(userRepository).delete(user);
+        verify(emailFilter).remove(user.getEmail());
+        when(userRepository.existsById(1L)).thenReturn(false);
+        assertThrows(NotFoundException.class, () -> userService.validateUserExists(1L));
+    }
+
+    private static DataIntegrityViolationException uniqueViolation(String constraint) {
+        SQLException sqlException = new SQLException("duplicate key value violates unique constraint", "23505");
+        return new DataIntegrityViolationException("insert",
+                new ConstraintViolationException("insert", sqlException, constraint));
     }
 }